@@ -0,0 +1,26 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * HTTP timeouts, parser choice and incremental polling limits for RSS feed fetches.
+ * {@code highWaterGraceDays} tolerates entries that show up in a feed a few days after publication.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "news.feeds.fetch")
+public class FeedFetchConfig {
+
+    public enum Parser { ROME, STAX }
+
+    private Parser parser = Parser.STAX;
+    private boolean incremental = true;
+    private int connectTimeoutSeconds = 10;
+    private int requestTimeoutSeconds = 30;
+    private int maxSeenGuids = 1000;
+    private int highWaterGraceDays = 3;
+}
@@ -0,0 +1,18 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size and time bounds for the in-process insight response cache.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "insights.cache")
+public class InsightCacheConfig {
+    private long maximumSize = 500;
+    private long expireAfterWriteMinutes = 60;
+}
@@ -0,0 +1,23 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Near-duplicate story detection. Articles whose SimHash fingerprints are within
+ * {@code maxDistance} bits of an article earlier in the run, or of an insight from the last
+ * {@code historyDays} days, are treated as the same story. Texts shorter than {@code minTokens}
+ * words are not fingerprinted.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "news.near-dup")
+public class NearDuplicateConfig {
+    private boolean enabled = true;
+    private int maxDistance = 3;
+    private int historyDays = 14;
+    private int minTokens = 6;
+}
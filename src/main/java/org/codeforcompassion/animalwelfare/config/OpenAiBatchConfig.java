@@ -0,0 +1,20 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Multi-article relevance screening: how many articles go into one prompt and the
+ * approximate prompt token budget a single batch may use. A size of 1 disables batching.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.batch")
+public class OpenAiBatchConfig {
+    private int size = 25;
+    private int maxPromptTokens = 6000;
+    private long lingerMillis = 250;
+}
@@ -0,0 +1,23 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection pool, dispatcher and timeout settings for the shared OpenAI HTTP client.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.client")
+public class OpenAiClientConfig {
+    private int maxIdleConnections = 16;
+    private long keepAliveSeconds = 300;
+    private int maxRequests = 64;
+    private int maxRequestsPerHost = 32;
+    private long connectTimeoutSeconds = 10;
+    private long readTimeoutSeconds = 60;
+    private long callTimeoutSeconds = 90;
+}
@@ -0,0 +1,19 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Selects how article insights are extracted: {@code combined} asks for relevance, insights
+ * and festival info in one call, {@code legacy} keeps the separate relevance, insight and
+ * festival calls.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.extraction")
+public class OpenAiExtractionConfig {
+    private String mode = "combined";
+}
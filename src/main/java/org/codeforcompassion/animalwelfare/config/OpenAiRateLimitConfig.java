@@ -0,0 +1,26 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client-side budgets for LLM calls: requests and tokens per minute, the bounds of the
+ * adaptive (AIMD) concurrency limit and the retry policy for rate-limited or failed calls.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.rate-limit")
+public class OpenAiRateLimitConfig {
+    private int requestsPerMinute = 500;
+    private int tokensPerMinute = 200000;
+    private int expectedCompletionTokens = 300;
+    private int initialConcurrency = 8;
+    private int minConcurrency = 1;
+    private int maxConcurrency = 64;
+    private int maxRetries = 5;
+    private long baseBackoffMillis = 1000;
+    private long maxBackoffMillis = 60000;
+}
@@ -0,0 +1,22 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-stage concurrency and queue sizing for the ingestion pipeline.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "news.pipeline")
+public class PipelineConfig {
+    private int fetchConcurrency = 8;
+    private int dedupConcurrency = 4;
+    private int classifyConcurrency = 8;
+    private int enrichConcurrency = 4;
+    private int publishConcurrency = 1;
+    private int queueCapacity = 200;
+}
@@ -0,0 +1,21 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizing of the in-process layers in front of the persisted negative relevance verdicts.
+ * {@code ttlDays} also sets the TTL index on {@code relevance_verdicts.createdAt}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "news.relevance-cache")
+public class RelevanceCacheConfig {
+    private int lruCapacity = 20000;
+    private int bloomExpectedInsertions = 200000;
+    private double bloomFalsePositiveRate = 0.01;
+    private int ttlDays = 14;
+}
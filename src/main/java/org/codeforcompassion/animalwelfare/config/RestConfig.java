@@ -1,9 +1,16 @@
 package org.codeforcompassion.animalwelfare.config;
 
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class RestConfig {
 
@@ -12,4 +19,27 @@ public class RestConfig {
         return new RestTemplate();
     }
 
+    @Bean
+    public OkHttpClient openAiHttpClient(OpenAiClientConfig config) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(), config.getKeepAliveSeconds(), TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(Duration.ofSeconds(config.getConnectTimeoutSeconds()))
+                .readTimeout(Duration.ofSeconds(config.getReadTimeoutSeconds()))
+                .callTimeout(Duration.ofSeconds(config.getCallTimeoutSeconds()))
+                .build();
+    }
+
+    @Bean
+    public HttpClient feedHttpClient(FeedFetchConfig config) {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(config.getConnectTimeoutSeconds()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
 }
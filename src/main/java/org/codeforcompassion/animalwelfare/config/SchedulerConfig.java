@@ -0,0 +1,30 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feed polling schedule. {@code daily} keeps the single 8 AM run over every feed; {@code adaptive}
+ * polls each feed on its own interval, aiming for about {@code targetRelevantPerPoll} relevant
+ * articles per poll based on the feed's recent yield.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "news.scheduler")
+public class SchedulerConfig {
+
+    public enum Mode { DAILY, ADAPTIVE }
+
+    private Mode mode = Mode.ADAPTIVE;
+    private int tickSeconds = 300;
+    private int maxFeedsPerTick = 12;
+    private long initialIntervalMinutes = 360;
+    private long minIntervalMinutes = 60;
+    private long maxIntervalMinutes = 2880;
+    private double targetRelevantPerPoll = 2.0;
+    private double emaAlpha = 0.3;
+    private double jitterFraction = 0.2;
+}
@@ -0,0 +1,24 @@
+package org.codeforcompassion.animalwelfare.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishing to Google Sheets through the {@code sheet_outbox} collection. When disabled, the
+ * pipeline writes to the sheet through its per-run buffer instead.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "sheets.outbox")
+public class SheetsOutboxConfig {
+    private boolean enabled = true;
+    private long pollMillis = 5000;
+    private int batchSize = 100;
+    private int maxBatchesPerPoll = 10;
+    private int maxAttempts = 10;
+    private long baseBackoffSeconds = 30;
+    private long maxBackoffSeconds = 3600;
+}
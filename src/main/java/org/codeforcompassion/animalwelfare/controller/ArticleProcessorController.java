@@ -1,44 +1,138 @@
 package org.codeforcompassion.animalwelfare.controller;
 
 import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.model.IngestionBackfill;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionRequest;
 import org.codeforcompassion.animalwelfare.scheduler.ArticleProcessorScheduler;
+import org.codeforcompassion.animalwelfare.service.BackfillCheckpointService;
+import org.codeforcompassion.animalwelfare.service.IngestionJob;
+import org.codeforcompassion.animalwelfare.service.IngestionJobService;
+import org.codeforcompassion.animalwelfare.util.RingBuffer;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {"Location", "X-Next-Cursor"})
 @RestController
 @RequestMapping("/api/articles")
 public class ArticleProcessorController {
 
     private final ArticleProcessorScheduler scheduler;
 
-    public ArticleProcessorController(ArticleProcessorScheduler scheduler) {
+    private final IngestionJobService jobService;
+
+    private final BackfillCheckpointService checkpoints;
+
+    public ArticleProcessorController(ArticleProcessorScheduler scheduler, IngestionJobService jobService,
+                                      BackfillCheckpointService checkpoints) {
         this.scheduler = scheduler;
+        this.jobService = jobService;
+        this.checkpoints = checkpoints;
     }
 
+    // Starts a background job and returns immediately; the same parameters while a run is active return that run
     @PostMapping("/process")
-    public ResponseEntity<String> triggerProcessing(
+    public ResponseEntity<Map<String, Object>> triggerProcessing(
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
             @RequestParam(defaultValue = "1000") int totalLimit,
             @RequestParam(defaultValue = "100") int perFeedLimit
     ) {
         if (fromDate == null) {
-            // Default to 3 years ago for historical data fetch
-            fromDate = LocalDateTime.now().minusYears(3);
+            // Default to 3 years ago for historical data fetch; day precision so repeat requests match
+            fromDate = LocalDate.now().minusYears(3).atStartOfDay();
         }
 
-        scheduler.fetchAndProcessArticles(totalLimit, perFeedLimit, fromDate);
-        return ResponseEntity.ok("Historical article fetch triggered from: " + fromDate);
+        IngestionJob job = jobService.submit(new IngestionRequest(totalLimit, perFeedLimit, fromDate, false));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/articles/jobs/" + job.getId()))
+                .body(job.snapshot());
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<Map<String, Object>>> listJobs() {
+        return ResponseEntity.ok(jobService.list().stream().map(IngestionJob::snapshot).toList());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String id) {
+        IngestionJob job = jobService.get(id);
+        return job != null ? ResponseEntity.ok(job.snapshot()) : ResponseEntity.notFound().build();
     }
 
+    // Server-sent "progress" events every second and a final "done" event
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String id) {
+        IngestionJob job = jobService.get(id);
+        return job != null ? ResponseEntity.ok(jobService.subscribe(job)) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String id) {
+        IngestionJob job = jobService.cancel(id);
+        return job != null ? ResponseEntity.accepted().body(job.snapshot()) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/backfills")
+    public ResponseEntity<List<Map<String, Object>>> listBackfills() {
+        return ResponseEntity.ok(checkpoints.recent().stream().map(this::describe).toList());
+    }
+
+    @GetMapping("/backfills/{id}")
+    public ResponseEntity<Map<String, Object>> getBackfill(@PathVariable String id) {
+        IngestionBackfill backfill = checkpoints.find(id);
+        return backfill != null ? ResponseEntity.ok(describe(backfill)) : ResponseEntity.notFound().build();
+    }
+
+    // Re-runs a backfill from its checkpoints: unfinished and failed articles are retried, finished ones skipped
+    @PostMapping("/backfills/{id}/resume")
+    public ResponseEntity<Map<String, Object>> resumeBackfill(@PathVariable String id) {
+        IngestionBackfill backfill = checkpoints.find(id);
+        if (backfill == null) {
+            return ResponseEntity.notFound().build();
+        }
+        IngestionJob job = jobService.submit(new IngestionRequest(backfill.getTotalLimit(), backfill.getPerFeedLimit(),
+                backfill.getFromDate(), false).withBackfillId(backfill.getId()));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/articles/jobs/" + job.getId()))
+                .body(job.snapshot());
+    }
+
+    private Map<String, Object> describe(IngestionBackfill backfill) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", backfill.getId());
+        description.put("fromDate", backfill.getFromDate());
+        description.put("totalLimit", backfill.getTotalLimit());
+        description.put("perFeedLimit", backfill.getPerFeedLimit());
+        description.put("createdAt", backfill.getCreatedAt());
+        description.put("lastRunAt", backfill.getLastRunAt());
+        description.put("states", checkpoints.stateCounts(backfill.getId()));
+        return description;
+    }
+
+    // Without a cursor or limit returns every retained article; otherwise one page plus X-Next-Cursor
     @GetMapping
-    public ResponseEntity<List<ArticleDTO>> getArticles() {
-        return ResponseEntity.ok(scheduler.getProcessedArticles());
+    public ResponseEntity<List<ArticleDTO>> getArticles(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(scheduler.getProcessedArticles());
+        }
+        RingBuffer.Page<ArticleDTO> page = scheduler.getProcessedArticles(
+                cursor != null ? Math.max(0, cursor) : 0, limit != null ? Math.clamp(limit, 1, 1000) : 100);
+        return ResponseEntity.ok()
+                .header("X-Next-Cursor", String.valueOf(page.nextCursor()))
+                .body(page.items());
     }
 
 }
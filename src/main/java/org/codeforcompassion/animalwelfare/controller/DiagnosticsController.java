@@ -0,0 +1,24 @@
+package org.codeforcompassion.animalwelfare.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.codeforcompassion.animalwelfare.service.QueryPlanDiagnosticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    private final QueryPlanDiagnosticsService queryPlanDiagnosticsService;
+
+    // Winning plan per repository query shape; "collectionScans" lists the ones missing an index
+    @GetMapping("/query-plans")
+    public ResponseEntity<Map<String, Object>> queryPlans() {
+        return ResponseEntity.ok(queryPlanDiagnosticsService.report());
+    }
+}
@@ -0,0 +1,65 @@
+package org.codeforcompassion.animalwelfare.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.codeforcompassion.animalwelfare.config.FeedConfig;
+import org.codeforcompassion.animalwelfare.model.FeedState;
+import org.codeforcompassion.animalwelfare.repository.FeedStateRepository;
+import org.codeforcompassion.animalwelfare.service.FeedParserBenchmarkService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/feeds")
+public class FeedAdminController {
+
+    private final FeedConfig feedConfig;
+
+    private final FeedParserBenchmarkService benchmarkService;
+
+    private final FeedStateRepository feedStateRepository;
+
+    // Learned yield and next poll time per feed, soonest first
+    @GetMapping("/schedule")
+    public ResponseEntity<List<Map<String, Object>>> schedule() {
+        List<Map<String, Object>> schedule = feedStateRepository.findAllById(feedConfig.getFeedUrls()).stream()
+                .sorted(Comparator.comparing(FeedState::getNextPollAt, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(state -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("feedUrl", state.getFeedUrl());
+                    entry.put("nextPollAt", state.getNextPollAt());
+                    entry.put("pollIntervalMinutes", state.getPollIntervalMinutes());
+                    entry.put("newPerHour", state.getNewPerHourEma());
+                    entry.put("relevanceRate", state.getRelevanceRateEma());
+                    entry.put("lastPolledAt", state.getLastPolledAt());
+                    return entry;
+                })
+                .toList();
+        return ResponseEntity.ok(schedule);
+    }
+
+    // Only configured feeds can be benchmarked, picked by their index in news.feeds.feed-urls
+    @GetMapping("/parser-benchmark")
+    public ResponseEntity<Map<String, Object>> parserBenchmark(
+            @RequestParam(defaultValue = "0") int feedIndex,
+            @RequestParam(defaultValue = "50") int iterations
+    ) {
+        if (feedIndex < 0 || feedIndex >= feedConfig.getFeedUrls().size() || iterations < 1 || iterations > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(benchmarkService.benchmark(feedConfig.getFeedUrls().get(feedIndex), iterations));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
@@ -3,21 +3,27 @@ package org.codeforcompassion.animalwelfare.controller;
 import lombok.RequiredArgsConstructor;
 import org.codeforcompassion.animalwelfare.model.CachedAiInsight;
 import org.codeforcompassion.animalwelfare.model.FestivalTrendDTO;
+import org.codeforcompassion.animalwelfare.model.InsightFilter;
+import org.codeforcompassion.animalwelfare.model.SummaryResponse;
 import org.codeforcompassion.animalwelfare.repository.CachedAiInsightRepository;
+import org.codeforcompassion.animalwelfare.service.InsightDataVersion;
+import org.codeforcompassion.animalwelfare.service.InsightResponseCache;
+import org.codeforcompassion.animalwelfare.service.InsightRollupService;
 import org.codeforcompassion.animalwelfare.service.InsightService;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -29,9 +35,16 @@ public class InsightController {
 
     private final InsightService insightService;
 
+    private final InsightRollupService insightRollupService;
+
+    private final InsightResponseCache insightResponseCache;
+
+    private final InsightDataVersion insightDataVersion;
+
     @GetMapping
-    public List<CachedAiInsight> getInsightsByTimeRange(
-            @RequestParam(defaultValue = "all") String range // week, month, year, all
+    public ResponseEntity<List<CachedAiInsight>> getInsightsByTimeRange(
+            @RequestParam(defaultValue = "all") String range, // week, month, year, all
+            WebRequest request
     ) {
         LocalDate now = LocalDate.now();
         LocalDate fromDate = switch (range.toLowerCase()) {
@@ -40,25 +53,31 @@ public class InsightController {
             case "year" -> now.minusYears(1);
             default -> now.minusMonths(3); // fetch all
         };
-        return cachedAiInsightRepository.findByPublishedDateAfter(fromDate);
+        return cached(request, "insights", Map.of("range", range),
+                () -> cachedAiInsightRepository.findByPublishedDateAfter(fromDate));
     }
 
     @GetMapping("/by-date")
-    public List<CachedAiInsight> getInsightsBetweenDates(
+    public ResponseEntity<List<CachedAiInsight>> getInsightsBetweenDates(
             @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest request
     ) {
-        return cachedAiInsightRepository.findByPublishedDateBetween(from, to);
+        return cached(request, "by-date", Map.of("from", from, "to", to),
+                () -> cachedAiInsightRepository.findByPublishedDateBetween(from, to));
     }
 
     @GetMapping("/filter")
-    public Page<CachedAiInsight> filterInsights(
+    public ResponseEntity<Page<CachedAiInsight>> filterInsights(
             @RequestParam(defaultValue = "all") String range,
             @RequestParam(defaultValue = "") String sentiment,
             @RequestParam(defaultValue = "") String location,
             @RequestParam(defaultValue = "") String theme,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(required = false) String afterId,
+            WebRequest request
     ) {
         LocalDate now = LocalDate.now();
         LocalDate fromDate = switch (range.toLowerCase()) {
@@ -68,29 +87,33 @@ public class InsightController {
             default -> now.minusMonths(6); // allow all
         };
 
-        List<CachedAiInsight> filtered = cachedAiInsightRepository.findByPublishedDateAfter(fromDate)
-                .stream()
-                .filter(i -> sentiment.isBlank() || sentiment.equalsIgnoreCase(i.getSentiment()))
-                .filter(i -> location.isBlank() || i.getLocation() != null && i.getLocation().toLowerCase().contains(location.toLowerCase()))
-                .filter(i -> theme.isBlank() || i.getThemes() != null && i.getThemes().stream().anyMatch(t -> t.toLowerCase().contains(theme.toLowerCase())))
-                .sorted(Comparator.comparing(CachedAiInsight::getPublishedDate).reversed())
-                .toList();
-
-        int start = Math.min(page * size, filtered.size());
-        int end = Math.min(start + size, filtered.size());
-
-        return new PageImpl<>(
-                filtered.subList(start, end),
-                PageRequest.of(page, size),
-                filtered.size()
-        );
+        InsightFilter filter = InsightFilter.builder()
+                .fromDate(fromDate)
+                .sentiment(sentiment)
+                .location(location)
+                .theme(theme)
+                .afterDate(afterDate)
+                .afterId(afterId)
+                .build();
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("range", range);
+        params.put("sentiment", sentiment);
+        params.put("location", location);
+        params.put("theme", theme);
+        params.put("page", page);
+        params.put("size", size);
+        params.put("afterDate", afterDate);
+        params.put("afterId", afterId);
+        return cached(request, "filter", params,
+                () -> cachedAiInsightRepository.findFiltered(filter, PageRequest.of(page, Math.max(1, size))));
     }
 
     @GetMapping("/summary")
-    public Map<String, Object> getSummaryStats(
-            @RequestParam(defaultValue = "all") String range
+    public ResponseEntity<SummaryResponse> getSummaryStats(
+            @RequestParam(defaultValue = "all") String range,
+            WebRequest request
     ) {
-        System.out.println("Summary API Called");
         LocalDate now = LocalDate.now();
         LocalDate fromDate;
         String rangeLabel;
@@ -118,34 +141,19 @@ public class InsightController {
             }
         }
 
-        List<CachedAiInsight> insights = cachedAiInsightRepository.findByPublishedDateAfter(fromDate);
-
-        long positive = insights.stream().filter(i -> "POSITIVE".equalsIgnoreCase(i.getSentiment())).count();
-        long negative = insights.stream().filter(i -> "NEGATIVE".equalsIgnoreCase(i.getSentiment())).count();
-
-        Map<String, Long> themeCounts = insights.stream()
-                .flatMap(i -> i.getThemes() != null ? i.getThemes().stream() : Stream.empty())
-                .collect(Collectors.groupingBy(String::toLowerCase, Collectors.counting()));
-
-        Map<String, Long> locationCounts = insights.stream()
-                .filter(i -> i.getLocation() != null)
-                .collect(Collectors.groupingBy(i -> i.getLocation().toLowerCase(), Collectors.counting()));
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("positive", positive);
-        response.put("negative", negative);
-        response.put("themeCounts", themeCounts);
-        response.put("locationCounts", locationCounts);
-        response.put("rangeLabel", rangeLabel);  // ✅ Add this line
-
-        return response;
+        return cached(request, "summary", Map.of("range", range), () -> {
+            SummaryResponse response = insightService.getSummary(fromDate);
+            response.setRangeLabel(rangeLabel);
+            return response;
+        });
     }
 
 
     @GetMapping("/festival-summary")
-    public Map<String, Object> getFestivalTrends(@RequestParam(defaultValue = "6months") String range) {
-        List<FestivalTrendDTO> festivalTrendList = insightService.getFestivalTrends(range);
-
+    public ResponseEntity<Map<String, Object>> getFestivalTrends(
+            @RequestParam(defaultValue = "6months") String range,
+            WebRequest request
+    ) {
         String label = switch (range.toLowerCase()) {
             case "year" -> "Last 1 Year";
             case "3months" -> "Last 3 Months";
@@ -153,12 +161,49 @@ public class InsightController {
             default -> "Last 6 Months";
         };
 
+        return cached(request, "festival-summary", Map.of("range", range), () -> {
+            List<FestivalTrendDTO> festivalTrendList = insightService.getFestivalTrends(range);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", festivalTrendList);
+            response.put("rangeLabel", label);
+            return response;
+        });
+    }
+
+    @PostMapping("/rollups/rebuild")
+    public Map<String, Object> rebuildRollups() {
         Map<String, Object> response = new HashMap<>();
-        response.put("data", festivalTrendList);
-        response.put("rangeLabel", label);
+        response.put("days", insightRollupService.rebuild());
+        insightDataVersion.bump();
         return response;
     }
 
+    @GetMapping("/cache/stats")
+    public Map<String, Object> cacheStats() {
+        return insightResponseCache.stats();
+    }
+
+    /**
+     * Serves a read endpoint from the response cache and answers conditional requests: the ETag
+     * is derived from the cache key and the data version, so an unchanged generation yields a 304
+     * without a lookup.
+     */
+    private <T> ResponseEntity<T> cached(WebRequest request, String endpoint, Map<String, ?> params, Supplier<T> loader) {
+        String key = insightResponseCache.key(endpoint, params);
+        String etag = "\"" + Integer.toHexString(key.hashCode()) + "-" + Long.toHexString(insightDataVersion.getEpoch())
+                + "-" + insightDataVersion.getGeneration() + "\"";
+        Instant lastModified = insightDataVersion.getLastModified();
+
+        if (request.checkNotModified(etag, lastModified.toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .body(insightResponseCache.get(key, loader));
+    }
+
     @GetMapping({"/", "/{path:^(?!api|actuator|admin|images|css|js|static|docs|swagger-ui).*$}"})
     public String forwardToFrontend() {
         return "forward:/index.html";
@@ -0,0 +1,77 @@
+package org.codeforcompassion.animalwelfare.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.codeforcompassion.animalwelfare.service.InsightExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/insights/export")
+@RequiredArgsConstructor
+public class InsightExportController {
+
+    private final InsightExportService exportService;
+
+    // e.g. /api/insights/export?format=csv&from=2024-01-01&fields=url,title,sentiment&gzip=true
+    @GetMapping
+    public ResponseEntity<?> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        LocalDate fromDate = from != null ? from : LocalDate.now().minusYears(3);
+        LocalDate toDate = to != null ? to : LocalDate.now();
+
+        InsightExportService.Format exportFormat;
+        List<String> columns;
+        try {
+            exportFormat = parseFormat(format);
+            columns = exportService.resolveFields(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        String extension = exportFormat == InsightExportService.Format.CSV ? "csv" : "ndjson";
+        MediaType contentType = exportFormat == InsightExportService.Format.CSV
+                ? new MediaType("text", "csv")
+                : new MediaType("application", "x-ndjson");
+
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            exportService.export(fromDate, toDate, columns, exportFormat, target);
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+
+        // A gzipped export is a .gz file, not a transport encoding, so clients save it as-is
+        return ResponseEntity.ok()
+                .contentType(gzip ? new MediaType("application", "gzip") : contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"insights-" + fromDate + "-to-" + toDate + "." + extension + (gzip ? ".gz" : "") + "\"")
+                .body(body);
+    }
+
+    private static InsightExportService.Format parseFormat(String format) {
+        try {
+            return InsightExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export format: " + format + ". Allowed: "
+                    + Arrays.toString(InsightExportService.Format.values()).toLowerCase());
+        }
+    }
+}
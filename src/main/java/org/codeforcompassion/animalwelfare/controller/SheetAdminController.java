@@ -3,12 +3,17 @@ package org.codeforcompassion.animalwelfare.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.codeforcompassion.animalwelfare.service.GoogleSheetService;
+import org.codeforcompassion.animalwelfare.service.SheetOutboxService;
+import org.codeforcompassion.animalwelfare.service.SheetsClient;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/sheets")
@@ -16,6 +21,10 @@ public class SheetAdminController {
 
     private final GoogleSheetService googleSheetService;
 
+    private final SheetsClient sheetsClient;
+
+    private final SheetOutboxService sheetOutbox;
+
     @PostMapping("/reorder-articles")
     public ResponseEntity<String> reorderArticleSheets() {
         try {
@@ -25,4 +34,22 @@ public class SheetAdminController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error: " + e.getMessage());
         }
     }
+
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, Object>> sheetsHealth() {
+        Map<String, Object> health = sheetsClient.checkHealth();
+        HttpStatus status = "UP".equals(health.get("status")) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(health);
+    }
+
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> outboxStats() {
+        return ResponseEntity.ok(sheetOutbox.stats());
+    }
+
+    // Gives entries that ran out of attempts another round, e.g. after fixing sheet permissions
+    @PostMapping("/outbox/requeue-dead")
+    public ResponseEntity<Map<String, Object>> requeueDead() {
+        return ResponseEntity.ok(Map.of("requeued", sheetOutbox.requeueDead()));
+    }
 }
@@ -1,5 +1,6 @@
 package org.codeforcompassion.animalwelfare.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -24,4 +25,13 @@ public class ArticleDTO {
     private String tone;
     private List<String> authorities;
     private String location;
+
+    // Set once a bulk dedup lookup has confirmed the URL is not in cached_ai_insights,
+    // so later stages can skip their own cache lookups
+    @JsonIgnore
+    private boolean dedupChecked;
+
+    // Entry GUID (or link) as it appeared in the feed, before URL normalization
+    @JsonIgnore
+    private String guid;
 }
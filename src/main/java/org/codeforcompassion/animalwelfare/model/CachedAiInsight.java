@@ -2,6 +2,8 @@ package org.codeforcompassion.animalwelfare.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -9,6 +11,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "cached_ai_insights")
+@CompoundIndexes({
+        @CompoundIndex(name = "title_publishedDate", def = "{'title': 1, 'publishedDate': 1}"),
+        @CompoundIndex(name = "publishedDate_id", def = "{'publishedDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "sentiment_publishedDate_id", def = "{'sentiment': 1, 'publishedDate': -1, '_id': -1}"),
+        // Festival trends only ever read festival-linked docs, so the index skips everything else
+        @CompoundIndex(name = "festival_publishedDate_name", def = "{'publishedDate': 1, 'festivalName': 1}",
+                partialFilter = "{'festivalLinked': true}")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,42 @@
+package org.codeforcompassion.animalwelfare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What incremental polling remembers about a feed between runs: the HTTP validators of the last
+ * response, the GUIDs it contained (newest poll first, bounded) and the newest published date seen.
+ * The adaptive scheduler adds the feed's learned yield and when it is due next.
+ */
+@Document(collection = "feed_states")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeedState {
+
+    @Id
+    private String feedUrl;
+
+    private String etag;
+    private String lastModified;
+
+    @Builder.Default
+    private List<String> seenGuids = new ArrayList<>();
+
+    private LocalDate highWaterDate;
+    private LocalDateTime lastPolledAt;
+
+    // Exponential moving averages: new entries per hour, and the share of new entries that were relevant
+    private Double newPerHourEma;
+    private Double relevanceRateEma;
+    private Long pollIntervalMinutes;
+    private LocalDateTime nextPollAt;
+    private LocalDateTime statsUpdatedAt;
+}
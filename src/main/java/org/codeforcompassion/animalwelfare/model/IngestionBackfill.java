@@ -0,0 +1,29 @@
+package org.codeforcompassion.animalwelfare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A checkpointed historical fetch. Its parameters are kept so the backfill can be resumed
+ * later; per-article progress lives in {@link IngestionWorkItem}.
+ */
+@Document(collection = "ingestion_backfills")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionBackfill {
+
+    @Id
+    private String id;
+
+    private LocalDateTime fromDate;
+    private int totalLimit;
+    private int perFeedLimit;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime lastRunAt;
+}
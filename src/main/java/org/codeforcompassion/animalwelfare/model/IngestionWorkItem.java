@@ -0,0 +1,43 @@
+package org.codeforcompassion.animalwelfare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one article within a backfill. {@code article} is re-saved on every transition,
+ * so an item can be re-injected at the stage after its last checkpoint with everything the
+ * earlier stages produced.
+ */
+@Document(collection = "ingestion_work_items")
+@CompoundIndex(name = "backfillId_state", def = "{'backfillId': 1, 'state': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestionWorkItem {
+
+    public enum State { DISCOVERED, CLASSIFIED, ENRICHED, PUBLISHED, REJECTED, FAILED }
+
+    public enum Stage { CLASSIFY, ENRICH, PUBLISH }
+
+    // backfillId + "|" + normalized article URL
+    @Id
+    private String id;
+
+    private String backfillId;
+    private String feedUrl;
+    private ArticleDTO article;
+
+    private State state;
+    // Stage to retry from, set when state is FAILED
+    private Stage failedStage;
+    private String reason;
+    private int attempts;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+package org.codeforcompassion.animalwelfare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-day counts over {@code cached_ai_insights}, keyed by published date. Maintained
+ * incrementally as insights are saved and rebuildable from the raw collection.
+ * Map keys are escaped with {@link org.codeforcompassion.animalwelfare.util.RollupKeys}
+ * because Mongo field names may not contain '.' or '$'.
+ */
+@Document(collection = "insight_daily_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InsightDailyRollup {
+
+    @Id
+    private LocalDate day;
+
+    private long total;
+
+    // Upper-cased sentiment -> count
+    @Builder.Default
+    private Map<String, Long> sentiments = new HashMap<>();
+
+    // Lower-cased theme -> count
+    @Builder.Default
+    private Map<String, Long> themes = new HashMap<>();
+
+    // Lower-cased location -> count
+    @Builder.Default
+    private Map<String, Long> locations = new HashMap<>();
+
+    // Festival name -> upper-cased sentiment -> count, festival-linked insights only
+    @Builder.Default
+    private Map<String, Map<String, Long>> festivals = new HashMap<>();
+}
@@ -0,0 +1,26 @@
+package org.codeforcompassion.animalwelfare.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Criteria for the paged insight listing. {@code afterDate}/{@code afterId} form an optional
+ * keyset cursor: when set, results continue strictly after that (publishedDate, _id) pair
+ * instead of skipping by page number.
+ */
+@Getter
+@Builder
+public class InsightFilter {
+    private LocalDate fromDate;
+    private String sentiment;
+    private String location;
+    private String theme;
+    private LocalDate afterDate;
+    private String afterId;
+
+    public boolean hasCursor() {
+        return afterDate != null && afterId != null;
+    }
+}
@@ -0,0 +1,29 @@
+package org.codeforcompassion.animalwelfare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted "not relevant" verdict for an article URL, so repeat appearances of a rejected
+ * item in the feeds do not pay for another LLM call. Mongo expires verdicts via the TTL index.
+ */
+@Document(collection = "relevance_verdicts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RelevanceVerdict {
+
+    @Id
+    private String url;
+
+    private String title;
+
+    // Same property as RelevanceCacheConfig.ttlDays, so the index and the warm-up window cannot drift apart
+    @Indexed(name = "createdAt_ttl", expireAfter = "${news.relevance-cache.ttl-days:14}d")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package org.codeforcompassion.animalwelfare.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * An article waiting to be appended to the Google Sheet. Written next to its cached insight and
+ * drained by the outbox publisher; published entries expire a week after delivery.
+ */
+@Document(collection = "sheet_outbox")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SheetOutboxEntry {
+
+    public enum Status { PENDING, PUBLISHED, DEAD }
+
+    @Id
+    private String url;
+
+    private ArticleDTO article;
+
+    private Status status;
+    private int attempts;
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttemptAt;
+
+    @Indexed(name = "publishedAt_ttl", expireAfter = "7d")
+    private LocalDateTime publishedAt;
+}
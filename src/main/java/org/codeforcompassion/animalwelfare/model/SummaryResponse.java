@@ -2,14 +2,17 @@ package org.codeforcompassion.animalwelfare.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.Map;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class SummaryResponse {
     private long positive;
     private long negative;
     private Map<String, Long> themeCounts;
     private Map<String, Long> locationCounts;
+    private String rangeLabel;
 }
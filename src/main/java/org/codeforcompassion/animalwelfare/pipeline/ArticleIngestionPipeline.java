@@ -0,0 +1,384 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.config.FeedConfig;
+import org.codeforcompassion.animalwelfare.config.OpenAiBatchConfig;
+import org.codeforcompassion.animalwelfare.config.PipelineConfig;
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.model.IngestionWorkItem;
+import org.codeforcompassion.animalwelfare.service.BackfillCheckpointService;
+import org.codeforcompassion.animalwelfare.service.GoogleSheetService;
+import org.codeforcompassion.animalwelfare.service.InsightDataVersion;
+import org.codeforcompassion.animalwelfare.service.NearDuplicateService;
+import org.codeforcompassion.animalwelfare.service.OpenAiService;
+import org.codeforcompassion.animalwelfare.service.RelevanceVerdictCache;
+import org.codeforcompassion.animalwelfare.service.RssFeedService;
+import org.codeforcompassion.animalwelfare.service.SheetOutboxService;
+import org.codeforcompassion.animalwelfare.service.SheetWriteBuffer;
+import org.codeforcompassion.animalwelfare.util.UrlUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Staged ingestion pipeline: fetch -> dedup -> classify -> enrich -> publish.
+ * Dedup covers exact URLs, title + date matches and near-duplicate stories.
+ * Every stage runs on virtual threads with a configurable number of workers and a
+ * bounded queue in front of it, so slow feeds or slow API calls only hold back their
+ * own items instead of the whole run. Classification screens articles in batches
+ * before any per-article extraction. Sheet rows go through the sheet outbox, or, with the
+ * outbox disabled, are buffered for the run and written in batches.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleIngestionPipeline {
+
+    private final RssFeedService rssFeedService;
+    private final OpenAiService openAiService;
+    private final GoogleSheetService googleSheetService;
+    private final FeedConfig feedConfig;
+    private final PipelineConfig pipelineConfig;
+    private final OpenAiBatchConfig batchConfig;
+    private final RelevanceVerdictCache verdictCache;
+    private final InsightDataVersion insightDataVersion;
+    private final NearDuplicateService nearDuplicateService;
+    private final BackfillCheckpointService checkpoints;
+    private final SheetOutboxService sheetOutbox;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Runs the requested feeds (all configured feeds by default) through the pipeline and blocks
+     * until every stage has drained.
+     *
+     * @return articles enriched and published in this run, plus per-feed yield
+     */
+    public IngestionReport run(IngestionRequest request, Consumer<ArticleDTO> onPublished) {
+        return run(request, onPublished, new PipelineProgress());
+    }
+
+    /**
+     * Same as {@link #run(IngestionRequest, Consumer)}, reporting per-stage counters to {@code progress}.
+     * Interrupting the calling thread cancels the run: workers are interrupted, in-flight fetches and
+     * LLM calls abort, and whatever was already published is still flushed to Google Sheets.
+     */
+    public IngestionReport run(IngestionRequest request, Consumer<ArticleDTO> onPublished, PipelineProgress progress) {
+        List<String> feedUrls = request.feedUrls() != null ? request.feedUrls() : feedConfig.getFeedUrls();
+        IngestionRunState state = new IngestionRunState(request.totalLimit(), request.perFeedLimit(),
+                nearDuplicateService.newRunIndex());
+        LocalDateTime fromDate = request.fromDate();
+        String backfillId = request.backfillId();
+        SheetWriteBuffer sheetBuffer = googleSheetService.openWriteBuffer()
+                .onWritten(batch -> checkpoints.markPublished(backfillId, batch));
+        int capacity = pipelineConfig.getQueueCapacity();
+
+        PipelineStage<String, FeedBatch> fetch = new PipelineStage<>("fetch", meterRegistry,
+                pipelineConfig.getFetchConcurrency(), capacity, (feedUrl, emit) -> fetchFeed(state, request, feedUrl, emit));
+        PipelineStage<FeedBatch, FeedArticle> dedup = new PipelineStage<>("dedup", meterRegistry,
+                pipelineConfig.getDedupConcurrency(), capacity, (item, emit) -> dedup(state, backfillId, fromDate, item, emit));
+        PipelineStage<FeedArticle, FeedArticle> classify = new PipelineStage<>("classify", meterRegistry,
+                pipelineConfig.getClassifyConcurrency(), capacity, batchConfig.getSize(), batchConfig.getLingerMillis(),
+                (items, emit) -> classify(state, backfillId, items, emit));
+        PipelineStage<FeedArticle, FeedArticle> enrich = new PipelineStage<>("enrich", meterRegistry,
+                pipelineConfig.getEnrichConcurrency(), capacity, (item, emit) -> enrich(state, backfillId, item, emit));
+        PipelineStage<FeedArticle, Void> publish = new PipelineStage<>("publish", meterRegistry,
+                pipelineConfig.getPublishConcurrency(), capacity, (item, emit) -> publish(state, sheetBuffer, backfillId, item, onPublished));
+
+        fetch.then(dedup).then(classify).then(enrich).then(publish);
+
+        List.of(fetch, dedup, classify, enrich, publish).forEach(stage -> stage.track(progress));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List.of(fetch, dedup, classify, enrich, publish).forEach(stage -> stage.start(executor));
+            try {
+                if (backfillId != null) {
+                    resumeCheckpoints(state, backfillId, classify, enrich, publish);
+                }
+                for (String feedUrl : feedUrls) {
+                    fetch.submit(feedUrl);
+                }
+                fetch.finish();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+            }
+        }
+
+        // Cleared while flushing so the Sheets write is not aborted, restored below for the caller
+        boolean cancelled = Thread.interrupted();
+
+        try {
+            sheetBuffer.flush();
+        } catch (Exception e) {
+            log.error("Failed to flush buffered articles to Google Sheets: {}", e.getMessage(), e);
+        }
+
+        // Feed state is saved only now, so entries the run did not finish (limits, failures,
+        // cancellation) are offered again by the next incremental poll
+        state.polls().forEach((feedUrl, poll) -> {
+            if (poll.state() == null) {
+                return;
+            }
+            try {
+                rssFeedService.commitPoll(poll.state(), state.unfinished(poll.articles()));
+            } catch (Exception e) {
+                log.warn("Could not save feed state for {}: {}", feedUrl, e.getMessage());
+            }
+        });
+
+        if (state.totalProcessed() > 0) {
+            insightDataVersion.bump();
+        }
+
+        if (cancelled) {
+            log.info("Run cancelled after {} new articles", state.totalProcessed());
+            Thread.currentThread().interrupt();
+        }
+
+        log.info("Processed {} new articles across {} feeds", state.totalProcessed(), feedUrls.size());
+        return new IngestionReport(state.totalProcessed(), state.yields());
+    }
+
+    /**
+     * Re-injects a backfill's unfinished work items at the stage after their last checkpoint, or at
+     * the stage that failed. Items past classification need a slot up front; whatever does not fit
+     * under the limits stays checkpointed for the next resume.
+     */
+    private void resumeCheckpoints(IngestionRunState state, String backfillId, PipelineStage<FeedArticle, FeedArticle> classify,
+                                   PipelineStage<FeedArticle, FeedArticle> enrich, PipelineStage<FeedArticle, Void> publish)
+            throws InterruptedException {
+        int resumed = 0;
+        for (IngestionWorkItem item : checkpoints.resumable(backfillId)) {
+            ArticleDTO article = item.getArticle();
+            if (article == null || !state.claimUrl(article.getUrl())) {
+                continue;
+            }
+            Long fingerprint = nearDuplicateService.fingerprint(article);
+            if (fingerprint != null) {
+                state.claimStory(fingerprint, article.getUrl());
+            }
+
+            IngestionWorkItem.Stage stage = switch (item.getState()) {
+                case CLASSIFIED -> IngestionWorkItem.Stage.ENRICH;
+                case ENRICHED -> IngestionWorkItem.Stage.PUBLISH;
+                case FAILED -> item.getFailedStage() != null ? item.getFailedStage() : IngestionWorkItem.Stage.CLASSIFY;
+                default -> IngestionWorkItem.Stage.CLASSIFY;
+            };
+            FeedArticle feedArticle = new FeedArticle(item.getFeedUrl(), article);
+            if (stage == IngestionWorkItem.Stage.CLASSIFY) {
+                classify.submit(feedArticle);
+            } else if (!state.tryReserve(item.getFeedUrl())) {
+                continue;
+            } else if (stage == IngestionWorkItem.Stage.ENRICH) {
+                // The insight may have been saved before the checkpoint was lost, so look it up again
+                article.setDedupChecked(false);
+                // Checkpointed after combined extraction the article already carries its insights; only save them.
+                // Decided from the article itself, since the extraction mode may have changed since the checkpoint
+                enrich.submit(article.getSentiment() != null ? feedArticle.markEnriched() : feedArticle);
+            } else {
+                publish.submit(feedArticle.markEnriched());
+            }
+            resumed++;
+        }
+        log.info("Resumed {} checkpointed articles of backfill {}", resumed, backfillId);
+    }
+
+    private void fetchFeed(IngestionRunState state, IngestionRequest request, String feedUrl, Consumer<FeedBatch> emit) throws Exception {
+        if (state.totalReached()) {
+            state.recordOutcome(feedUrl, FeedYield.Outcome.SKIPPED);
+            return;
+        }
+        LocalDate fromDate = request.fromDate() != null ? request.fromDate().toLocalDate() : null;
+        RssFeedService.FeedPoll poll;
+        try {
+            poll = rssFeedService.poll(feedUrl, request.incremental(), fromDate);
+        } catch (Exception e) {
+            state.recordOutcome(feedUrl, FeedYield.Outcome.FAILED);
+            throw e;
+        }
+        state.recordPoll(feedUrl, poll);
+        List<ArticleDTO> articles = poll.articles();
+        log.info("Articles list size: {} for feedUrl: {} ", articles.size(), feedUrl);
+        state.recordFetched(feedUrl, articles.size());
+        emit.accept(new FeedBatch(feedUrl, articles));
+    }
+
+    /**
+     * Normalizes and date-filters a feed's entries, drops URLs already seen earlier in this run,
+     * then resolves the rest against Mongo with a single bulk query. Whatever is left is matched
+     * by SimHash against stories already claimed in this run or stored recently.
+     */
+    private void dedup(IngestionRunState state, String backfillId, LocalDateTime fromDate, FeedBatch batch, Consumer<FeedArticle> emit) {
+        List<ArticleDTO> candidates = new ArrayList<>();
+        for (ArticleDTO article : batch.articles()) {
+            // Filter based on publish date
+            if (article.getPublishedDate() != null && fromDate != null &&
+                    article.getPublishedDate().isBefore(fromDate.toLocalDate())) {
+                log.info("Skipping old article: {}", article.getTitle());
+                countDedup("too_old");
+                state.finish(article.getUrl());
+                continue;
+            }
+            article.setUrl(UrlUtils.normalize(article.getUrl()));
+            if (state.claimUrl(article.getUrl())) {
+                candidates.add(article);
+            } else {
+                countDedup("seen_in_run");
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        if (!state.accepts(batch.feedUrl())) {
+            return;
+        }
+
+        Set<ArticleDTO> existing = rssFeedService.findArticlesInMongo(candidates);
+        List<ArticleDTO> fresh = new ArrayList<>();
+        for (ArticleDTO article : candidates) {
+            if (existing.contains(article)) {
+                countDedup("mongo");
+                state.finish(article.getUrl());
+                continue;
+            }
+            if (!state.accepts(batch.feedUrl())) {
+                continue;
+            }
+            Long fingerprint = nearDuplicateService.fingerprint(article);
+            String original = fingerprint != null ? state.claimStory(fingerprint, article.getUrl()) : null;
+            if (original != null) {
+                log.info("Skipped (near duplicate of {}): {}", original, article.getTitle());
+                countDedup("near_duplicate");
+                state.recordDuplicate(article.getUrl(), original);
+                continue;
+            }
+            article.setDedupChecked(true);
+            fresh.add(article);
+        }
+
+        // Backfills skip articles they already checkpointed; unfinished ones were resumed at the start
+        for (ArticleDTO article : checkpoints.registerDiscovered(backfillId, batch.feedUrl(), fresh)) {
+            state.recordFresh(batch.feedUrl());
+            emit.accept(new FeedArticle(batch.feedUrl(), article));
+        }
+    }
+
+    private void countDedup(String reason) {
+        meterRegistry.counter("ingestion.dedup.skipped", "reason", reason).increment();
+    }
+
+    private void classify(IngestionRunState state, String backfillId, List<FeedArticle> items, Consumer<FeedArticle> emit) throws Exception {
+        List<FeedArticle> candidates = new ArrayList<>();
+        for (FeedArticle item : items) {
+            if (!state.accepts(item.feedUrl())) {
+                continue;
+            }
+            if (verdictCache.isKnownIrrelevant(item.article().getUrl())) {
+                log.info("Skipped (cached not relevant): {}", item.article().getTitle());
+                meterRegistry.counter("ingestion.relevance.cache.hits").increment();
+                state.finish(item.article().getUrl());
+                checkpoints.markRejected(backfillId, item.article(), "cached not relevant");
+            } else {
+                candidates.add(item);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<Boolean> screened = null;
+        if (candidates.size() > 1) {
+            try {
+                screened = openAiService.classifyRelevanceBatch(candidates.stream().map(FeedArticle::article).toList());
+            } catch (Exception e) {
+                log.error("Batch classification failed for {} articles: {}", candidates.size(), e.getMessage(), e);
+                for (FeedArticle item : candidates) {
+                    checkpoints.markFailed(backfillId, item.article(), IngestionWorkItem.Stage.CLASSIFY, e.getMessage());
+                }
+                return;
+            }
+        }
+
+        boolean combined = openAiService.isCombinedExtraction();
+        List<ArticleDTO> rejected = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            FeedArticle item = candidates.get(i);
+            ArticleDTO article = item.article();
+            if (!state.accepts(item.feedUrl())) {
+                continue;
+            }
+            boolean relevant;
+            try {
+                if (screened != null && !screened.get(i)) {
+                    relevant = false;
+                } else if (combined) {
+                    relevant = openAiService.extractCombined(article);
+                } else {
+                    relevant = screened != null || openAiService.isAnimalWelfareRelevant(article);
+                }
+            } catch (Exception e) {
+                log.error("Classification failed for {}: {}", article.getTitle(), e.getMessage(), e);
+                checkpoints.markFailed(backfillId, article, IngestionWorkItem.Stage.CLASSIFY, e.getMessage());
+                continue;
+            }
+            if (!relevant) {
+                log.info("Skipped (not relevant): {}", article.getTitle());
+                rejected.add(article);
+                state.finish(article.getUrl());
+                checkpoints.markRejected(backfillId, article, "not relevant");
+                continue;
+            }
+            state.recordRelevant(item.feedUrl());
+            checkpoints.markClassified(backfillId, article);
+            if (state.tryReserve(item.feedUrl())) {
+                emit.accept(combined ? item.markEnriched() : item);
+            }
+        }
+
+        try {
+            verdictCache.recordIrrelevant(rejected);
+        } catch (Exception e) {
+            log.warn("Could not persist {} relevance verdicts: {}", rejected.size(), e.getMessage());
+        }
+    }
+
+    private void enrich(IngestionRunState state, String backfillId, FeedArticle item, Consumer<FeedArticle> emit) throws Exception {
+        try {
+            if (item.enriched()) {
+                openAiService.saveInsight(item.article());
+            } else {
+                openAiService.enrichArticleWithInsights(item.article());
+            }
+        } catch (Exception e) {
+            state.release(item.feedUrl());
+            checkpoints.markFailed(backfillId, item.article(), IngestionWorkItem.Stage.ENRICH, e.getMessage());
+            throw e;
+        }
+        checkpoints.markEnriched(backfillId, item.article());
+        emit.accept(item);
+    }
+
+    private void publish(IngestionRunState state, SheetWriteBuffer sheetBuffer, String backfillId, FeedArticle item,
+                         Consumer<ArticleDTO> onPublished) {
+        if (sheetOutbox.isEnabled()) {
+            // Already queued in the sheet outbox when its insight was saved; delivery is the publisher's job
+            checkpoints.markPublished(backfillId, List.of(item.article()));
+        } else {
+            try {
+                sheetBuffer.add(item.article());
+            } catch (Exception e) {
+                log.error("Buffered Google Sheets write failed: {}", e.getMessage(), e);
+            }
+        }
+        state.finish(item.article().getUrl());
+        onPublished.accept(item.article());
+    }
+}
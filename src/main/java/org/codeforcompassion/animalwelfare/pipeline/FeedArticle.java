@@ -0,0 +1,19 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+
+/**
+ * An article travelling through the pipeline together with the feed it came from.
+ * {@code enriched} is set once insights have been extracted, e.g. by a combined call
+ * during classification.
+ */
+record FeedArticle(String feedUrl, ArticleDTO article, boolean enriched) {
+
+    FeedArticle(String feedUrl, ArticleDTO article) {
+        this(feedUrl, article, false);
+    }
+
+    FeedArticle markEnriched() {
+        return new FeedArticle(feedUrl, article, true);
+    }
+}
@@ -0,0 +1,11 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+
+import java.util.List;
+
+/**
+ * All entries fetched from one feed, deduplicated together against Mongo.
+ */
+record FeedBatch(String feedUrl, List<ArticleDTO> articles) {
+}
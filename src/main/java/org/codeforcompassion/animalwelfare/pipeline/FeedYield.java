@@ -0,0 +1,11 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+/**
+ * What one feed contributed to a run: entries fetched, entries new to Mongo, and how many of
+ * those were classified as relevant. Counts are only meaningful for a {@code POLLED} feed; a
+ * {@code SKIPPED} feed was not fetched because the run limit had already been reached.
+ */
+public record FeedYield(Outcome outcome, int fetched, int fresh, int relevant) {
+
+    public enum Outcome { POLLED, SKIPPED, FAILED }
+}
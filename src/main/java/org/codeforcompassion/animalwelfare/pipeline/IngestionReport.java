@@ -0,0 +1,13 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+import java.util.Map;
+
+/**
+ * Outcome of a pipeline run. {@code feeds} only contains feeds that were actually fetched.
+ */
+public record IngestionReport(int processed, Map<String, FeedYield> feeds) {
+
+    public static IngestionReport empty() {
+        return new IngestionReport(0, Map.of());
+    }
+}
@@ -0,0 +1,27 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Parameters of one pipeline run. Incremental runs poll feeds conditionally and skip entries
+ * seen on earlier polls; full runs re-read every feed regardless of stored feed state.
+ * {@code feedUrls} restricts the run to a subset of feeds; null means every configured feed.
+ * A {@code backfillId} makes the run checkpoint every article and resume earlier checkpoints.
+ */
+public record IngestionRequest(int totalLimit, int perFeedLimit, LocalDateTime fromDate, boolean incremental,
+                               List<String> feedUrls, String backfillId) {
+
+    public IngestionRequest(int totalLimit, int perFeedLimit, LocalDateTime fromDate, boolean incremental) {
+        this(totalLimit, perFeedLimit, fromDate, incremental, null, null);
+    }
+
+    public IngestionRequest(int totalLimit, int perFeedLimit, LocalDateTime fromDate, boolean incremental,
+                            List<String> feedUrls) {
+        this(totalLimit, perFeedLimit, fromDate, incremental, feedUrls, null);
+    }
+
+    public IngestionRequest withBackfillId(String id) {
+        return new IngestionRequest(totalLimit, perFeedLimit, fromDate, incremental, feedUrls, id);
+    }
+}
@@ -0,0 +1,172 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.service.RssFeedService;
+import org.codeforcompassion.animalwelfare.util.SimHashIndex;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the total and per-feed processing limits of a single run. Slots are reserved
+ * once an article is known to be relevant, so concurrent workers can never push a run
+ * past {@code totalLimit} or a feed past {@code perFeedLimit}.
+ */
+class IngestionRunState {
+
+    private final int totalLimit;
+    private final int perFeedLimit;
+    private final AtomicInteger totalReserved = new AtomicInteger();
+    private final Map<String, AtomicInteger> perFeedReserved = new ConcurrentHashMap<>();
+    private final Set<String> claimedUrls = ConcurrentHashMap.newKeySet();
+    private final Map<String, RssFeedService.FeedPoll> pollsByFeed = new ConcurrentHashMap<>();
+    private final Set<String> finishedUrls = ConcurrentHashMap.newKeySet();
+    // Near-duplicate URL -> URL of the article it was skipped in favour of
+    private final Map<String, String> duplicateOf = new ConcurrentHashMap<>();
+    private final Map<String, YieldCounters> yieldByFeed = new ConcurrentHashMap<>();
+    private final SimHashIndex stories;
+
+    IngestionRunState(int totalLimit, int perFeedLimit, SimHashIndex stories) {
+        this.totalLimit = totalLimit;
+        this.perFeedLimit = perFeedLimit;
+        this.stories = stories;
+    }
+
+    boolean accepts(String feedUrl) {
+        return totalReserved.get() < totalLimit && feedCounter(feedUrl).get() < perFeedLimit;
+    }
+
+    boolean totalReached() {
+        return totalReserved.get() >= totalLimit;
+    }
+
+    /**
+     * Claims a normalized URL for this run; feeds overlap, so the same article may arrive
+     * from several of them and only the first claim proceeds.
+     */
+    boolean claimUrl(String normalizedUrl) {
+        return claimedUrls.add(normalizedUrl);
+    }
+
+    /**
+     * Claims a story by its SimHash fingerprint, the near-duplicate counterpart of {@link #claimUrl}.
+     *
+     * @return the URL of the earlier article or insight carrying the same story, or null if this claim wins
+     */
+    String claimStory(long fingerprint, String normalizedUrl) {
+        return stories != null ? stories.findOrAdd(fingerprint, normalizedUrl) : null;
+    }
+
+    boolean tryReserve(String feedUrl) {
+        AtomicInteger feedCounter = feedCounter(feedUrl);
+        if (!incrementBelow(feedCounter, perFeedLimit)) {
+            return false;
+        }
+        if (!incrementBelow(totalReserved, totalLimit)) {
+            feedCounter.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void release(String feedUrl) {
+        feedCounter(feedUrl).decrementAndGet();
+        totalReserved.decrementAndGet();
+    }
+
+    void recordPoll(String feedUrl, RssFeedService.FeedPoll poll) {
+        pollsByFeed.put(feedUrl, poll);
+    }
+
+    Map<String, RssFeedService.FeedPoll> polls() {
+        return pollsByFeed;
+    }
+
+    /**
+     * Marks an article as settled for good: published, rejected, too old or already stored.
+     * Anything fetched but never finished is offered again by the next incremental poll.
+     */
+    void finish(String normalizedUrl) {
+        finishedUrls.add(normalizedUrl);
+    }
+
+    void recordDuplicate(String normalizedUrl, String originalUrl) {
+        duplicateOf.put(normalizedUrl, originalUrl);
+    }
+
+    /**
+     * Fetched articles this run did not finish. A URL claimed first by another feed shares that
+     * copy's fate, and a near-duplicate shares its original's, unless the original was already
+     * stored before this run (it was never claimed here).
+     */
+    List<ArticleDTO> unfinished(Collection<ArticleDTO> fetched) {
+        return fetched.stream().filter(article -> !isFinished(article.getUrl())).toList();
+    }
+
+    private boolean isFinished(String url) {
+        if (url == null || finishedUrls.contains(url)) {
+            return true;
+        }
+        String original = duplicateOf.get(url);
+        return original != null && (finishedUrls.contains(original) || !claimedUrls.contains(original));
+    }
+
+    void recordFetched(String feedUrl, int count) {
+        yieldCounters(feedUrl).fetched.addAndGet(count);
+    }
+
+    void recordFresh(String feedUrl) {
+        yieldCounters(feedUrl).fresh.incrementAndGet();
+    }
+
+    void recordRelevant(String feedUrl) {
+        yieldCounters(feedUrl).relevant.incrementAndGet();
+    }
+
+    void recordOutcome(String feedUrl, FeedYield.Outcome outcome) {
+        yieldCounters(feedUrl).outcome = outcome;
+    }
+
+    Map<String, FeedYield> yields() {
+        Map<String, FeedYield> yields = new HashMap<>();
+        yieldByFeed.forEach((feedUrl, counters) -> yields.put(feedUrl,
+                new FeedYield(counters.outcome, counters.fetched.get(), counters.fresh.get(), counters.relevant.get())));
+        return yields;
+    }
+
+    int totalProcessed() {
+        return totalReserved.get();
+    }
+
+    private YieldCounters yieldCounters(String feedUrl) {
+        return yieldByFeed.computeIfAbsent(feedUrl, k -> new YieldCounters());
+    }
+
+    private static final class YieldCounters {
+        private final AtomicInteger fetched = new AtomicInteger();
+        private final AtomicInteger fresh = new AtomicInteger();
+        private final AtomicInteger relevant = new AtomicInteger();
+        private volatile FeedYield.Outcome outcome = FeedYield.Outcome.POLLED;
+    }
+
+    private AtomicInteger feedCounter(String feedUrl) {
+        return perFeedReserved.computeIfAbsent(feedUrl, k -> new AtomicInteger());
+    }
+
+    private static boolean incrementBelow(AtomicInteger counter, int limit) {
+        while (true) {
+            int current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live per-stage counters of one pipeline run, safe to read while the run is in progress.
+ */
+public class PipelineProgress {
+
+    public record StageSnapshot(long received, long completed, long failed) {
+    }
+
+    static final class StageCounters {
+        final AtomicLong received = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+    }
+
+    private final Map<String, StageCounters> stages = new LinkedHashMap<>();
+
+    synchronized StageCounters register(String stage) {
+        return stages.computeIfAbsent(stage, k -> new StageCounters());
+    }
+
+    public synchronized Map<String, StageSnapshot> snapshot() {
+        Map<String, StageSnapshot> snapshot = new LinkedHashMap<>();
+        stages.forEach((name, counters) -> snapshot.put(name,
+                new StageSnapshot(counters.received.get(), counters.completed.get(), counters.failed.get())));
+        return snapshot;
+    }
+}
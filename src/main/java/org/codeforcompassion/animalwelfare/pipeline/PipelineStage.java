@@ -0,0 +1,175 @@
+package org.codeforcompassion.animalwelfare.pipeline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One stage of the ingestion pipeline: a fixed number of workers draining a bounded
+ * input queue and emitting results to the next stage. When every worker of a stage
+ * has finished, the stage signals end-of-input to its successor.
+ * <p>
+ * A batched stage hands its handler up to {@code batchSize} items at a time, waiting at
+ * most {@code lingerMillis} for a batch to fill once the first item has arrived.
+ */
+@Slf4j
+final class PipelineStage<I, O> {
+
+    @FunctionalInterface
+    interface Handler<I, O> {
+        void handle(I item, Consumer<O> emit) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface BatchHandler<I, O> {
+        void handle(List<I> items, Consumer<O> emit) throws Exception;
+    }
+
+    private static final Object END = new Object();
+
+    private final String name;
+    private final int concurrency;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final BlockingQueue<Object> input;
+    private final BatchHandler<I, O> handler;
+    private final AtomicInteger activeWorkers;
+    private PipelineStage<O, ?> next;
+    private PipelineProgress.StageCounters counters = new PipelineProgress.StageCounters();
+    private final Timer handleTimer;
+    private final Counter completedItems;
+    private final Counter failedItems;
+
+    PipelineStage(String name, MeterRegistry registry, int concurrency, int queueCapacity, Handler<I, O> handler) {
+        this(name, registry, concurrency, queueCapacity, 1, 0, (items, emit) -> handler.handle(items.get(0), emit));
+    }
+
+    PipelineStage(String name, MeterRegistry registry, int concurrency, int queueCapacity, int batchSize, long lingerMillis,
+                  BatchHandler<I, O> handler) {
+        this.name = name;
+        this.concurrency = Math.max(1, concurrency);
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.input = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.handler = handler;
+        this.activeWorkers = new AtomicInteger(this.concurrency);
+        // Handler time per batch (per item for unbatched stages) and item outcomes, tagged with the stage name
+        this.handleTimer = Timer.builder("ingestion.stage")
+                .description("Time spent handling one batch in a pipeline stage")
+                .tag("stage", name)
+                .register(registry);
+        this.completedItems = Counter.builder("ingestion.stage.items").tag("stage", name).tag("outcome", "completed").register(registry);
+        this.failedItems = Counter.builder("ingestion.stage.items").tag("stage", name).tag("outcome", "failed").register(registry);
+    }
+
+    <R> PipelineStage<O, R> then(PipelineStage<O, R> nextStage) {
+        this.next = nextStage;
+        return nextStage;
+    }
+
+    void track(PipelineProgress progress) {
+        this.counters = progress.register(name);
+    }
+
+    void start(ExecutorService executor) {
+        for (int i = 0; i < concurrency; i++) {
+            executor.submit(this::work);
+        }
+    }
+
+    void submit(I item) throws InterruptedException {
+        input.put(item);
+    }
+
+    void finish() throws InterruptedException {
+        for (int i = 0; i < concurrency; i++) {
+            input.put(END);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void work() {
+        try {
+            boolean done = false;
+            while (!done) {
+                Object first = input.take();
+                if (first == END) {
+                    break;
+                }
+                List<I> batch = new ArrayList<>(batchSize);
+                batch.add((I) first);
+                done = fill(batch);
+                counters.received.addAndGet(batch.size());
+                long start = System.nanoTime();
+                try {
+                    handler.handle(batch, this::emit);
+                    counters.completed.addAndGet(batch.size());
+                    completedItems.increment(batch.size());
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    counters.failed.addAndGet(batch.size());
+                    failedItems.increment(batch.size());
+                    log.error("[{}] Failed to process {} item(s): {}", name, batch.size(), e.getMessage(), e);
+                } finally {
+                    handleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (activeWorkers.decrementAndGet() == 0 && next != null) {
+                try {
+                    next.finish();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Tops up {@code batch} to the batch size. Stops at this worker's end marker, in which case
+     * the batch is still processed and the worker exits afterwards.
+     *
+     * @return whether the end marker was consumed
+     */
+    @SuppressWarnings("unchecked")
+    private boolean fill(List<I> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            Object item = remaining > 0 ? input.poll(remaining, TimeUnit.NANOSECONDS) : input.poll();
+            if (item == null) {
+                return false;
+            }
+            if (item == END) {
+                return true;
+            }
+            batch.add((I) item);
+        }
+        return false;
+    }
+
+    private void emit(O item) {
+        if (next == null) {
+            return;
+        }
+        try {
+            next.submit(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while handing off to next stage", e);
+        }
+    }
+}
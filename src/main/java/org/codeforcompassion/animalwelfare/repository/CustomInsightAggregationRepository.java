@@ -1,10 +1,28 @@
 package org.codeforcompassion.animalwelfare.repository;
 
+import org.codeforcompassion.animalwelfare.model.CachedAiInsight;
 import org.codeforcompassion.animalwelfare.model.FestivalTrendDTO;
+import org.codeforcompassion.animalwelfare.model.InsightFilter;
+import org.codeforcompassion.animalwelfare.model.SummaryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface CustomInsightAggregationRepository {
     List<FestivalTrendDTO> aggregateFestivalTrends(LocalDate fromDate);
+
+    // Sentiment, theme and location counts for insights published after fromDate, in one $facet pass
+    SummaryResponse aggregateSummary(LocalDate fromDate);
+
+    // Only url, title and publishedDate are populated
+    List<CachedAiInsight> findDedupKeys(Collection<String> urls, Collection<String> titles);
+
+    // Only url, title and summary are populated; publishedDate on or after fromDate
+    List<CachedAiInsight> findFingerprintSources(LocalDate fromDate);
+
+    // Newest first, ordered by (publishedDate, _id); filters, sort and paging run in Mongo
+    Page<CachedAiInsight> findFiltered(InsightFilter filter, Pageable pageable);
 }
@@ -0,0 +1,9 @@
+package org.codeforcompassion.animalwelfare.repository;
+
+import org.codeforcompassion.animalwelfare.model.FeedState;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FeedStateRepository extends MongoRepository<FeedState, String> {
+}
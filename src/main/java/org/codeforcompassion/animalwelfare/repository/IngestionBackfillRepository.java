@@ -0,0 +1,13 @@
+package org.codeforcompassion.animalwelfare.repository;
+
+import org.codeforcompassion.animalwelfare.model.IngestionBackfill;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IngestionBackfillRepository extends MongoRepository<IngestionBackfill, String> {
+
+    List<IngestionBackfill> findTop20ByOrderByCreatedAtDesc();
+}
@@ -0,0 +1,9 @@
+package org.codeforcompassion.animalwelfare.repository;
+
+import org.codeforcompassion.animalwelfare.model.RelevanceVerdict;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RelevanceVerdictRepository extends MongoRepository<RelevanceVerdict, String> {
+}
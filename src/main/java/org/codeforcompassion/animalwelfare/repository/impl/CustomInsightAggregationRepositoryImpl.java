@@ -1,15 +1,30 @@
 package org.codeforcompassion.animalwelfare.repository.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.codeforcompassion.animalwelfare.model.CachedAiInsight;
 import org.codeforcompassion.animalwelfare.model.FestivalTrendDTO;
+import org.codeforcompassion.animalwelfare.model.InsightFilter;
+import org.codeforcompassion.animalwelfare.model.SummaryResponse;
 import org.codeforcompassion.animalwelfare.repository.CustomInsightAggregationRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.*;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
 
@@ -63,5 +78,134 @@ public class CustomInsightAggregationRepositoryImpl implements CustomInsightAggr
        return mongoTemplate.aggregate(aggregation, "cached_ai_insights", FestivalTrendDTO.class).getMappedResults();
    }
 
+    @Override
+    public SummaryResponse aggregateSummary(LocalDate fromDate) {
+        MatchOperation match = match(Criteria.where("publishedDate").gt(fromDate));
+
+        FacetOperation facet = facet(
+                project().and(StringOperators.ToUpper.upperValueOf("sentiment")).as("key"),
+                group("key").count().as("count"))
+                .as("sentiments")
+                .and(
+                        unwind("themes"),
+                        project().and(StringOperators.ToLower.lowerValueOf("themes")).as("key"),
+                        group("key").count().as("count"))
+                .as("themes")
+                .and(
+                        match(Criteria.where("location").ne(null)),
+                        project().and(StringOperators.ToLower.lowerValueOf("location")).as("key"),
+                        group("key").count().as("count"))
+                .as("locations");
+
+        Aggregation aggregation = newAggregation(match, facet);
+        Document result = mongoTemplate.aggregate(aggregation, "cached_ai_insights", Document.class).getUniqueMappedResult();
+
+        Map<String, Long> sentimentCounts = toCounts(result, "sentiments");
+        SummaryResponse summary = new SummaryResponse();
+        summary.setPositive(sentimentCounts.getOrDefault("POSITIVE", 0L));
+        summary.setNegative(sentimentCounts.getOrDefault("NEGATIVE", 0L));
+        summary.setThemeCounts(toCounts(result, "themes"));
+        summary.setLocationCounts(toCounts(result, "locations"));
+        return summary;
+    }
+
+    private static Map<String, Long> toCounts(Document facetResult, String facetName) {
+        Map<String, Long> counts = new HashMap<>();
+        if (facetResult == null) {
+            return counts;
+        }
+        for (Document bucket : facetResult.getList(facetName, Document.class, List.of())) {
+            Object key = bucket.get("_id");
+            if (key != null) {
+                counts.put(key.toString(), ((Number) bucket.get("count")).longValue());
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public List<CachedAiInsight> findDedupKeys(Collection<String> urls, Collection<String> titles) {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("_id").in(urls),
+                Criteria.where("title").in(titles)));
+        query.fields().include("_id", "title", "publishedDate");
+        return mongoTemplate.find(query, CachedAiInsight.class);
+    }
+
+    @Override
+    public List<CachedAiInsight> findFingerprintSources(LocalDate fromDate) {
+        Query query = new Query(Criteria.where("publishedDate").gte(fromDate));
+        query.fields().include("_id", "title", "summary");
+        return mongoTemplate.find(query, CachedAiInsight.class);
+    }
+
+    @Override
+    public Page<CachedAiInsight> findFiltered(InsightFilter filter, Pageable pageable) {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("publishedDate").gt(filter.getFromDate()));
+
+        if (filter.getSentiment() != null && !filter.getSentiment().isBlank()) {
+            String sentiment = filter.getSentiment().trim();
+            // Exact variants keep the (sentiment, publishedDate) index usable
+            criteria.add(Criteria.where("sentiment").in(sentiment.toUpperCase(), sentiment.toLowerCase(),
+                    sentiment.substring(0, 1).toUpperCase() + sentiment.substring(1).toLowerCase()));
+        }
+        if (filter.getLocation() != null && !filter.getLocation().isBlank()) {
+            criteria.add(Criteria.where("location").regex(Pattern.quote(filter.getLocation().trim()), "i"));
+        }
+        if (filter.getTheme() != null && !filter.getTheme().isBlank()) {
+            criteria.add(Criteria.where("themes").regex(Pattern.quote(filter.getTheme().trim()), "i"));
+        }
+
+        Query countQuery = new Query(new Criteria().andOperator(criteria));
+
+        if (filter.hasCursor()) {
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("publishedDate").lt(filter.getAfterDate()),
+                    new Criteria().andOperator(
+                            Criteria.where("publishedDate").is(filter.getAfterDate()),
+                            Criteria.where("_id").lt(filter.getAfterId()))));
+        }
+
+        Query query = new Query(new Criteria().andOperator(criteria))
+                .with(Sort.by(Sort.Direction.DESC, "publishedDate").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(pageable.getPageSize());
+        if (!filter.hasCursor()) {
+            query.skip(pageable.getOffset());
+        }
+
+        List<CachedAiInsight> content = mongoTemplate.find(query, CachedAiInsight.class);
+        if (filter.hasCursor()) {
+            // A cursor page has no offset, so the size of a short page says nothing about the total
+            return new CursorPage<>(content, pageable, mongoTemplate.count(countQuery, CachedAiInsight.class));
+        }
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.count(countQuery, CachedAiInsight.class));
+    }
+
+    /**
+     * Page of a keyset query that reports the counted total as-is; {@link PageImpl} would cap it
+     * at offset + content size whenever the page looks like the last one.
+     */
+    private static final class CursorPage<T> extends PageImpl<T> {
+
+        private final long total;
+
+        CursorPage(List<T> content, Pageable pageable, long total) {
+            super(content, pageable, total);
+            this.total = total;
+        }
+
+        @Override
+        public long getTotalElements() {
+            return total;
+        }
+
+        @Override
+        public int getTotalPages() {
+            return getSize() == 0 ? 1 : (int) Math.ceil((double) total / getSize());
+        }
+    }
+
 
 }
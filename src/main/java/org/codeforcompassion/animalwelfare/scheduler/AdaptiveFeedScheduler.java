@@ -0,0 +1,161 @@
+package org.codeforcompassion.animalwelfare.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.config.FeedConfig;
+import org.codeforcompassion.animalwelfare.config.FetchLimitConfig;
+import org.codeforcompassion.animalwelfare.config.SchedulerConfig;
+import org.codeforcompassion.animalwelfare.model.FeedState;
+import org.codeforcompassion.animalwelfare.pipeline.FeedYield;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionReport;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionRequest;
+import org.codeforcompassion.animalwelfare.repository.FeedStateRepository;
+import org.codeforcompassion.animalwelfare.service.IngestionJob;
+import org.codeforcompassion.animalwelfare.service.IngestionJobService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Polls each feed on its own learned interval instead of all feeds once a day. Every tick runs
+ * the feeds that are due as an incremental ingestion job (skipped while another job is active)
+ * and waits for it, then updates each polled feed's moving averages of new entries per hour and
+ * relevance hit rate. Productive feeds get polled more often, dead ones back off to
+ * {@code maxIntervalMinutes}, and jitter keeps feeds from lining up on the same tick.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdaptiveFeedScheduler {
+
+    private final IngestionJobService jobService;
+    private final FeedStateRepository feedStateRepository;
+    private final FeedConfig feedConfig;
+    private final FetchLimitConfig fetchLimitConfig;
+    private final SchedulerConfig schedulerConfig;
+
+    @Scheduled(fixedDelayString = "${news.scheduler.tick-seconds:300}", initialDelay = 60, timeUnit = TimeUnit.SECONDS)
+    public void tick() {
+        if (schedulerConfig.getMode() != SchedulerConfig.Mode.ADAPTIVE) {
+            return;
+        }
+        if (jobService.hasActiveJobs()) {
+            // Never overlap another run; due feeds stay due for the next tick
+            log.info("Ingestion job in progress, deferring feed polls");
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> dueFeeds = dueFeeds(now);
+        if (dueFeeds.isEmpty()) {
+            return;
+        }
+
+        log.info("Polling {} due feeds", dueFeeds.size());
+        LocalDateTime fromDate = now.minusMinutes(Math.max(schedulerConfig.getMaxIntervalMinutes(), Duration.ofDays(1).toMinutes()));
+        IngestionJob job = jobService.submit(new IngestionRequest(
+                fetchLimitConfig.getTotal(), fetchLimitConfig.getPerfeed(), fromDate, true, dueFeeds));
+        IngestionReport report;
+        try {
+            report = job.awaitReport();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (report == null) {
+            // The run failed; every due feed backs off
+            report = IngestionReport.empty();
+        }
+
+        for (String feedUrl : dueFeeds) {
+            try {
+                updateSchedule(feedUrl, report.feeds().get(feedUrl), LocalDateTime.now());
+            } catch (Exception e) {
+                log.warn("Could not update poll schedule for {}: {}", feedUrl, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Feeds whose next poll time has passed, most overdue first. Feeds seen for the first time get
+     * a random first poll within the initial interval, so a fresh deployment does not poll them all at once.
+     */
+    private List<String> dueFeeds(LocalDateTime now) {
+        Map<String, FeedState> states = feedStateRepository.findAllById(feedConfig.getFeedUrls()).stream()
+                .collect(Collectors.toMap(FeedState::getFeedUrl, Function.identity()));
+
+        for (String feedUrl : feedConfig.getFeedUrls()) {
+            FeedState state = states.get(feedUrl);
+            if (state == null || state.getNextPollAt() == null) {
+                FeedState scheduled = state != null ? state : FeedState.builder().feedUrl(feedUrl).build();
+                long delay = ThreadLocalRandom.current().nextLong(schedulerConfig.getInitialIntervalMinutes() + 1);
+                scheduled.setNextPollAt(now.plusMinutes(delay));
+                states.put(feedUrl, feedStateRepository.save(scheduled));
+            }
+        }
+
+        return states.values().stream()
+                .filter(state -> !state.getNextPollAt().isAfter(now))
+                .sorted(Comparator.comparing(FeedState::getNextPollAt))
+                .limit(schedulerConfig.getMaxFeedsPerTick())
+                .map(FeedState::getFeedUrl)
+                .toList();
+    }
+
+    private void updateSchedule(String feedUrl, FeedYield yield, LocalDateTime now) {
+        if (yield != null && yield.outcome() == FeedYield.Outcome.SKIPPED) {
+            // Not fetched because the run limit was reached; stays due for the next tick
+            return;
+        }
+        FeedState state = feedStateRepository.findById(feedUrl)
+                .orElseGet(() -> FeedState.builder().feedUrl(feedUrl).build());
+
+        long intervalMinutes;
+        if (yield == null || yield.outcome() == FeedYield.Outcome.FAILED) {
+            // Fetch failed (or the run died before reaching it): back off without learning from it
+            long current = state.getPollIntervalMinutes() != null
+                    ? state.getPollIntervalMinutes()
+                    : schedulerConfig.getInitialIntervalMinutes();
+            intervalMinutes = Math.min(current * 2, schedulerConfig.getMaxIntervalMinutes());
+        } else {
+            LocalDateTime since = state.getStatsUpdatedAt() != null
+                    ? state.getStatsUpdatedAt()
+                    : now.minusMinutes(schedulerConfig.getInitialIntervalMinutes());
+            double hours = Math.max(Duration.between(since, now).toMinutes(), 1) / 60.0;
+
+            state.setNewPerHourEma(ema(state.getNewPerHourEma(), yield.fetched() / hours));
+            if (yield.fresh() > 0) {
+                state.setRelevanceRateEma(ema(state.getRelevanceRateEma(), (double) yield.relevant() / yield.fresh()));
+            }
+            state.setStatsUpdatedAt(now);
+            intervalMinutes = nextInterval(state);
+        }
+
+        double jitter = 1 + ThreadLocalRandom.current().nextDouble(-schedulerConfig.getJitterFraction(), schedulerConfig.getJitterFraction());
+        state.setPollIntervalMinutes(intervalMinutes);
+        state.setNextPollAt(now.plusMinutes(Math.round(intervalMinutes * jitter)));
+        feedStateRepository.save(state);
+    }
+
+    private long nextInterval(FeedState state) {
+        double relevanceRate = state.getRelevanceRateEma() != null ? state.getRelevanceRateEma() : 1.0;
+        double relevantPerHour = state.getNewPerHourEma() * relevanceRate;
+        if (relevantPerHour <= 0) {
+            return schedulerConfig.getMaxIntervalMinutes();
+        }
+        long minutes = Math.round(schedulerConfig.getTargetRelevantPerPoll() / relevantPerHour * 60);
+        return Math.clamp(minutes, schedulerConfig.getMinIntervalMinutes(), schedulerConfig.getMaxIntervalMinutes());
+    }
+
+    private double ema(Double previous, double sample) {
+        return previous == null ? sample : schedulerConfig.getEmaAlpha() * sample + (1 - schedulerConfig.getEmaAlpha()) * previous;
+    }
+}
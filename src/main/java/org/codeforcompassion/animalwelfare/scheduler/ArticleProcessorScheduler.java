@@ -3,30 +3,27 @@ package org.codeforcompassion.animalwelfare.scheduler;
 import lombok.extern.slf4j.Slf4j;
 import org.codeforcompassion.animalwelfare.config.FeedConfig;
 import org.codeforcompassion.animalwelfare.config.FetchLimitConfig;
+import org.codeforcompassion.animalwelfare.config.SchedulerConfig;
 import org.codeforcompassion.animalwelfare.model.ArticleDTO;
-import org.codeforcompassion.animalwelfare.service.GoogleSheetService;
-import org.codeforcompassion.animalwelfare.service.OpenAiService;
-import org.codeforcompassion.animalwelfare.service.RssFeedService;
-import org.codeforcompassion.animalwelfare.util.UrlUtils;
+import org.codeforcompassion.animalwelfare.pipeline.ArticleIngestionPipeline;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionReport;
+import org.codeforcompassion.animalwelfare.pipeline.PipelineProgress;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionRequest;
+import org.codeforcompassion.animalwelfare.util.RingBuffer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 @Slf4j
 @Component
 public class ArticleProcessorScheduler {
 
-    private final RssFeedService rssFeedService;
-    private final OpenAiService openAiService;
-    private final GoogleSheetService googleSheetService;
+    private final ArticleIngestionPipeline ingestionPipeline;
 
     @Autowired
     private RestTemplate restTemplate;
@@ -37,20 +34,22 @@ public class ArticleProcessorScheduler {
     @Autowired
     private  FetchLimitConfig fetchLimitConfig;
 
+    @Autowired
+    private SchedulerConfig schedulerConfig;
+
 
-    private final List<ArticleDTO> processedArticles = new CopyOnWriteArrayList<>();
+    // Most recently published articles; older ones are evicted once capacity is reached
+    private final RingBuffer<ArticleDTO> processedArticles;
 
 
 
-    public ArticleProcessorScheduler(RssFeedService rssFeedService,
-                                     OpenAiService openAiService,
-                                     GoogleSheetService googleSheetService,
+    public ArticleProcessorScheduler(ArticleIngestionPipeline ingestionPipeline,
                                      RestTemplate restTemplate,
                                      FeedConfig feedConfig,
-                                     FetchLimitConfig fetchLimitConfig) {
-        this.rssFeedService = rssFeedService;
-        this.openAiService = openAiService;
-        this.googleSheetService = googleSheetService;
+                                     FetchLimitConfig fetchLimitConfig,
+                                     @Value("${news.processed-articles.capacity:5000}") int processedCapacity) {
+        this.ingestionPipeline = ingestionPipeline;
+        this.processedArticles = new RingBuffer<>(processedCapacity);
         this.restTemplate = restTemplate;
         this.feedConfig = feedConfig;
         this.fetchLimitConfig = fetchLimitConfig;
@@ -59,62 +58,44 @@ public class ArticleProcessorScheduler {
 
     @Scheduled(cron = "0 0 8 * * *") // Every day at 8:00 AM
     public void scheduledFetchAndProcess() {
+        if (schedulerConfig.getMode() != SchedulerConfig.Mode.DAILY) {
+            return; // AdaptiveFeedScheduler polls feeds individually
+        }
         LocalDateTime fromDate = LocalDateTime.now().minusDays(1);
-        fetchAndProcessArticles(fetchLimitConfig.getTotal(), fetchLimitConfig.getPerfeed(), fromDate);
+        // Scheduled polls only pick up what changed since the previous poll
+        fetchAndProcessArticles(new IngestionRequest(fetchLimitConfig.getTotal(), fetchLimitConfig.getPerfeed(), fromDate, true));
     }
 
 
-    // Manually callable with full control
+    // Manually callable with full control; always re-reads every feed in full
     public void fetchAndProcessArticles(int totalLimit, int perFeedLimit, LocalDateTime fromDate) {
-        int totalProcessed = 0;
+        fetchAndProcessArticles(new IngestionRequest(totalLimit, perFeedLimit, fromDate, false));
+    }
+
+    public IngestionReport fetchAndProcessArticles(IngestionRequest request) {
         try {
-            for(String feedUrl : feedConfig.getFeedUrls()) {
-                if (totalProcessed >= totalLimit) break;
-                List<ArticleDTO> articles = rssFeedService.fetchArticles(feedUrl);
-                log.info("Articles list size: {} for feedUrl: {} ", articles.size(), feedUrl);
-                int perFeedProcessed = 0;
-                for (ArticleDTO article : articles) {
-                    if (totalProcessed >= totalLimit || perFeedProcessed >= perFeedLimit) break;
-
-                    String normalizedUrl = UrlUtils.normalize(article.getUrl());
-                    boolean alreadyExists = rssFeedService.articleExistsInMongoWithUrlOrTitle(normalizedUrl,article);
-                    if (alreadyExists) {
-                        continue;
-                    }
-
-                    article.setUrl(normalizedUrl);
-
-                    // Filter based on publish date
-                    if (article.getPublishedDate() != null && fromDate != null &&
-                            article.getPublishedDate().isBefore(fromDate.toLocalDate())) {
-                        log.info("Skipping old article: {}", article.getTitle());
-                        continue;
-                    }
-
-
-                    if (openAiService.isAnimalWelfareRelevant(article)) {
-                        openAiService.enrichArticleWithInsights(article);
-
-                        googleSheetService.appendArticle(article);
-
-                        processedArticles.add(article);
-                        totalProcessed++;
-                        perFeedProcessed++;
-                    } else {
-                        log.info("Skipped (not relevant): {}", article.getTitle());
-                    }
-                }
-            }
-            log.info("Processed {} new articles. Seen URLs: {}", totalProcessed);
+            return process(request, new PipelineProgress());
         } catch (Exception ex) {
             log.error("Error during article processing: {}", ex.getMessage(), ex);
-            ex.printStackTrace();
+            return IngestionReport.empty();
         }
     }
 
+    // Propagates failures, for callers that track the outcome of the run themselves
+    public IngestionReport process(IngestionRequest request, PipelineProgress progress) {
+        return ingestionPipeline.run(request, processedArticles::add, progress);
+    }
+
 
     public List<ArticleDTO> getProcessedArticles() {
-        return Collections.unmodifiableList(processedArticles);
+        return processedArticles.snapshot();
+    }
+
+    /**
+     * Recently published articles from {@code cursor} onwards, oldest first, with the cursor for the next page.
+     */
+    public RingBuffer.Page<ArticleDTO> getProcessedArticles(long cursor, int limit) {
+        return processedArticles.page(cursor, limit);
     }
 
 }
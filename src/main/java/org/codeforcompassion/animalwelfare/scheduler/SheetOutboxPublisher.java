@@ -0,0 +1,80 @@
+package org.codeforcompassion.animalwelfare.scheduler;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.config.SheetsOutboxConfig;
+import org.codeforcompassion.animalwelfare.model.SheetOutboxEntry;
+import org.codeforcompassion.animalwelfare.service.GoogleSheetService;
+import org.codeforcompassion.animalwelfare.service.SheetOutboxService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+
+/**
+ * Drains the sheet outbox in the background, one {@link GoogleSheetService#appendArticles(List)}
+ * call per batch. A poll ends at the first batch of which nothing could be published, so a slow
+ * or rate-limited Sheets API only delays the outbox, never ingestion. Re-sending a batch that was
+ * partly written is safe because the sheet skips URLs it already holds.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SheetOutboxPublisher {
+
+    private final SheetOutboxService outbox;
+    private final GoogleSheetService googleSheetService;
+    private final SheetsOutboxConfig config;
+
+    @Scheduled(fixedDelayString = "${sheets.outbox.poll-millis:5000}", initialDelay = 10000)
+    public void drain() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        for (int i = 0; i < config.getMaxBatchesPerPoll(); i++) {
+            List<SheetOutboxEntry> batch = outbox.nextBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!publish(batch) || batch.size() < config.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Appends a batch, splitting it in halves when Sheets rejects its content so that only the
+     * offending entries are backed off (and eventually parked). Transient failures back off the
+     * whole batch, since no entry is at fault.
+     *
+     * @return whether any entry was published
+     */
+    private boolean publish(List<SheetOutboxEntry> batch) {
+        try {
+            googleSheetService.appendArticles(batch.stream().map(SheetOutboxEntry::getArticle).toList());
+        } catch (Exception e) {
+            if (batch.size() == 1 || !isRejection(e)) {
+                log.warn("Publishing {} outbox entries to Google Sheets failed, backing off: {}", batch.size(), e.getMessage());
+                outbox.markFailed(batch, e.getMessage());
+                return false;
+            }
+            int middle = batch.size() / 2;
+            boolean first = publish(batch.subList(0, middle));
+            boolean second = publish(batch.subList(middle, batch.size()));
+            return first || second;
+        }
+        outbox.markPublished(batch);
+        return true;
+    }
+
+    // A 4xx other than 429, or a failure building the rows, is caused by the entries themselves
+    private static boolean isRejection(Exception e) {
+        if (e instanceof GoogleJsonResponseException response) {
+            return response.getStatusCode() / 100 == 4 && response.getStatusCode() != 429;
+        }
+        return !(e instanceof IOException) && !(e instanceof GeneralSecurityException);
+    }
+}
@@ -0,0 +1,198 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.model.IngestionBackfill;
+import org.codeforcompassion.animalwelfare.model.IngestionWorkItem;
+import org.codeforcompassion.animalwelfare.model.IngestionWorkItem.Stage;
+import org.codeforcompassion.animalwelfare.model.IngestionWorkItem.State;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionRequest;
+import org.codeforcompassion.animalwelfare.repository.IngestionBackfillRepository;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Persists per-article checkpoints of backfill runs in {@code ingestion_work_items}, so a
+ * backfill that dies halfway can be resumed: finished items are left alone, and everything
+ * else re-enters the pipeline at the stage after its last checkpoint. Every method is a
+ * no-op for runs without a backfill id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackfillCheckpointService {
+
+    private static final List<State> RESUMABLE = List.of(State.DISCOVERED, State.CLASSIFIED, State.ENRICHED, State.FAILED);
+
+    private final MongoTemplate mongoTemplate;
+    private final IngestionBackfillRepository backfillRepository;
+
+    public IngestionBackfill start(IngestionRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        return backfillRepository.save(IngestionBackfill.builder()
+                .id(UUID.randomUUID().toString())
+                .fromDate(request.fromDate())
+                .totalLimit(request.totalLimit())
+                .perFeedLimit(request.perFeedLimit())
+                .createdAt(now)
+                .build());
+    }
+
+    // Removes a backfill that never ran
+    public void discard(String backfillId) {
+        try {
+            backfillRepository.deleteById(backfillId);
+        } catch (Exception e) {
+            log.warn("Could not remove unused backfill {}: {}", backfillId, e.getMessage());
+        }
+    }
+
+    public IngestionBackfill find(String backfillId) {
+        return backfillRepository.findById(backfillId).orElse(null);
+    }
+
+    public List<IngestionBackfill> recent() {
+        return backfillRepository.findTop20ByOrderByCreatedAtDesc();
+    }
+
+    public void touch(String backfillId) {
+        if (backfillId == null) {
+            return;
+        }
+        backfillRepository.findById(backfillId).ifPresent(backfill -> {
+            backfill.setLastRunAt(LocalDateTime.now());
+            backfillRepository.save(backfill);
+        });
+    }
+
+    /**
+     * Registers a feed's new articles in one bulk upsert. Articles the backfill already tracks keep
+     * their recorded state; they are re-injected from their checkpoints instead.
+     *
+     * @return the articles that were not tracked before and should go through the pipeline now
+     */
+    public List<ArticleDTO> registerDiscovered(String backfillId, String feedUrl, List<ArticleDTO> articles) {
+        if (backfillId == null || articles.isEmpty()) {
+            return articles;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, IngestionWorkItem.class);
+        for (ArticleDTO article : articles) {
+            bulk.upsert(byId(backfillId, article), new Update()
+                    .setOnInsert("backfillId", backfillId)
+                    .setOnInsert("feedUrl", feedUrl)
+                    .setOnInsert("article", article)
+                    .setOnInsert("state", State.DISCOVERED)
+                    .setOnInsert("attempts", 0)
+                    .setOnInsert("createdAt", now)
+                    .setOnInsert("updatedAt", now));
+        }
+        BulkWriteResult result = bulk.execute();
+        Set<Integer> inserted = result.getUpserts().stream().map(BulkWriteUpsert::getIndex).collect(Collectors.toSet());
+        return IntStream.range(0, articles.size())
+                .filter(inserted::contains)
+                .mapToObj(articles::get)
+                .toList();
+    }
+
+    public void markClassified(String backfillId, ArticleDTO article) {
+        transition(backfillId, article, State.CLASSIFIED, null, null);
+    }
+
+    public void markEnriched(String backfillId, ArticleDTO article) {
+        transition(backfillId, article, State.ENRICHED, null, null);
+    }
+
+    public void markRejected(String backfillId, ArticleDTO article, String reason) {
+        transition(backfillId, article, State.REJECTED, null, reason);
+    }
+
+    public void markFailed(String backfillId, ArticleDTO article, Stage stage, String reason) {
+        transition(backfillId, article, State.FAILED, stage, reason);
+    }
+
+    public void markPublished(String backfillId, Collection<ArticleDTO> articles) {
+        if (backfillId == null || articles.isEmpty()) {
+            return;
+        }
+        List<String> ids = articles.stream().map(article -> id(backfillId, article)).toList();
+        try {
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)),
+                    new Update().set("state", State.PUBLISHED).set("updatedAt", LocalDateTime.now()).unset("reason"),
+                    IngestionWorkItem.class);
+        } catch (Exception e) {
+            // Re-publishing on resume is harmless: the sheet skips URLs it already has
+            log.warn("Could not checkpoint {} published articles: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    // Everything not yet published or rejected, including failures to retry
+    public List<IngestionWorkItem> resumable(String backfillId) {
+        return mongoTemplate.find(new Query(Criteria.where("backfillId").is(backfillId).and("state").in(RESUMABLE)),
+                IngestionWorkItem.class);
+    }
+
+    public Map<String, Long> stateCounts(String backfillId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("backfillId").is(backfillId)),
+                Aggregation.group("state").count().as("count"));
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (State state : State.values()) {
+            counts.put(state.name(), 0L);
+        }
+        for (Document bucket : mongoTemplate.aggregate(aggregation, IngestionWorkItem.class, Document.class)) {
+            counts.put(String.valueOf(bucket.get("_id")), ((Number) bucket.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    private void transition(String backfillId, ArticleDTO article, State state, Stage failedStage, String reason) {
+        if (backfillId == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("state", state)
+                .set("article", article)
+                .set("updatedAt", LocalDateTime.now());
+        if (state == State.FAILED) {
+            update.set("failedStage", failedStage).set("reason", reason).inc("attempts", 1);
+        } else if (reason != null) {
+            update.set("reason", reason);
+        } else {
+            update.unset("reason").unset("failedStage");
+        }
+        try {
+            mongoTemplate.updateFirst(byId(backfillId, article), update, IngestionWorkItem.class);
+        } catch (Exception e) {
+            // A lost checkpoint only means the item is redone on resume
+            log.warn("Could not checkpoint {} as {}: {}", article.getUrl(), state, e.getMessage());
+        }
+    }
+
+    private static Query byId(String backfillId, ArticleDTO article) {
+        return new Query(Criteria.where("_id").is(id(backfillId, article)));
+    }
+
+    private static String id(String backfillId, ArticleDTO article) {
+        return backfillId + "|" + article.getUrl();
+    }
+}
@@ -0,0 +1,49 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-fetch entry screening shared by both feed parsers: the date cutoff plus the seen-GUID and
+ * high-water checks of incremental polling. Also collects what the feed state needs afterwards.
+ */
+class FeedEntryFilter {
+
+    private final LocalDate notBefore;
+    private final Set<String> seenGuids;
+    private final LocalDate knownBefore;
+
+    @Getter
+    private final List<String> responseGuids = new ArrayList<>();
+    @Getter
+    private LocalDate newestDate;
+
+    FeedEntryFilter(LocalDate notBefore, Set<String> seenGuids, LocalDate knownBefore) {
+        this.notBefore = notBefore;
+        this.seenGuids = seenGuids;
+        this.knownBefore = knownBefore;
+    }
+
+    boolean accept(String guid, LocalDate publishedDate) {
+        if (guid != null) {
+            responseGuids.add(guid);
+        }
+        if (publishedDate == null) {
+            return false;
+        }
+        if (newestDate == null || publishedDate.isAfter(newestDate)) {
+            newestDate = publishedDate;
+        }
+        if (publishedDate.isBefore(notBefore)) {
+            return false;
+        }
+        if (guid != null && seenGuids.contains(guid)) {
+            return false;
+        }
+        return knownBefore == null || !publishedDate.isBefore(knownBefore);
+    }
+}
@@ -0,0 +1,72 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.codeforcompassion.animalwelfare.config.FeedFetchConfig;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compares the Rome and StAX feed parsers on one downloaded feed body: average parse time and
+ * bytes allocated per parse on the calling thread, entry filtering and article mapping included.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedParserBenchmarkService {
+
+    private static final int WARMUP_ITERATIONS = 5;
+
+    private final RssFeedService rssFeedService;
+
+    public Map<String, Object> benchmark(String feedUrl, int iterations) throws Exception {
+        HttpResponse<byte[]> response = rssFeedService.download(feedUrl, null);
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Feed " + feedUrl + " returned HTTP " + response.statusCode());
+        }
+        byte[] body = response.body();
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("feedUrl", feedUrl);
+        result.put("bytes", body.length);
+        result.put("iterations", iterations);
+        for (FeedFetchConfig.Parser parser : FeedFetchConfig.Parser.values()) {
+            result.put(parser.name().toLowerCase(), measure(parser, body, contentType, feedUrl, iterations));
+        }
+        return result;
+    }
+
+    private Map<String, Object> measure(FeedFetchConfig.Parser parser, byte[] body, String contentType,
+                                        String feedUrl, int iterations) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parseOnce(parser, body, contentType, feedUrl);
+        }
+
+        int entries = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            entries = parseOnce(parser, body, contentType, feedUrl);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries);
+        stats.put("avgMicros", elapsedNanos / 1_000 / iterations);
+        stats.put("allocatedKbPerParse", allocated / 1024 / iterations);
+        return stats;
+    }
+
+    private int parseOnce(FeedFetchConfig.Parser parser, byte[] body, String contentType, String feedUrl) throws Exception {
+        FeedEntryFilter filter = new FeedEntryFilter(LocalDate.now().minusYears(3), Set.of(), null);
+        return rssFeedService.parse(parser, body, contentType, feedUrl, filter).size();
+    }
+}
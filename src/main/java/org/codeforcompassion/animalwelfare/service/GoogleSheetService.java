@@ -1,69 +1,148 @@
 package org.codeforcompassion.animalwelfare.service;
 
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.AddSheetRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.Request;
+import com.google.api.services.sheets.v4.model.SheetProperties;
 import com.google.api.services.sheets.v4.model.ValueRange;
-import com.google.auth.http.HttpCredentialsAdapter;
-import com.google.auth.oauth2.GoogleCredentials;
-import com.google.auth.oauth2.ServiceAccountCredentials;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Base64;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class GoogleSheetService {
 
+    @Autowired
+    private SheetsClient sheetsClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${google.sheet.id}")
     private String spreadsheetId;
 
-    private int duplicateCount = 0;
+    @Value("${google.sheet.flush-threshold:100}")
+    private int flushThreshold;
 
-    private static final String APPLICATION_NAME = "Animal Welfare Tracker";
+    private final SheetUrlIndex urlIndex = new SheetUrlIndex();
 
     public void appendArticle(ArticleDTO article) throws IOException, GeneralSecurityException {
+        appendArticles(List.of(article));
+    }
+
+    /**
+     * Opens a buffer that collects articles during a run and writes them in batches.
+     */
+    public SheetWriteBuffer openWriteBuffer() {
+        return new SheetWriteBuffer(this, flushThreshold);
+    }
+
+    /**
+     * Appends a batch of articles grouped by monthly tab. Regardless of batch size this costs
+     * one spreadsheet lookup, at most one batchGet for URL rows not yet in the index, one
+     * append per touched tab and, only when new tabs had to be created, one structural
+     * batchUpdate plus a reorder. Writes are serialized so the index row counts stay exact.
+     */
+    public synchronized void appendArticles(List<ArticleDTO> articles) throws IOException, GeneralSecurityException {
+        if (articles.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            writeArticles(articles);
+        } finally {
+            sample.stop(meterRegistry.timer("sheets.append"));
+        }
+    }
+
+    private void writeArticles(List<ArticleDTO> articles) throws IOException, GeneralSecurityException {
         Sheets service = getSheetsService();
 
-        String monthSheetName = getMonthlySheetName(article.getPublishedDate() != null
-                ? article.getPublishedDate().toString()
-                : "");
+        Map<String, List<ArticleDTO>> articlesByTab = new LinkedHashMap<>();
+        for (ArticleDTO article : articles) {
+            String monthSheetName = getMonthlySheetName(article.getPublishedDate() != null
+                    ? article.getPublishedDate().toString()
+                    : "");
+            articlesByTab.computeIfAbsent(monthSheetName, k -> new ArrayList<>()).add(article);
+        }
 
-        ensureSheetExists(service, monthSheetName);
+        SheetLayout layout = ensureSheetsExist(service, articlesByTab.keySet());
 
-        reorderMonthlySheets();
+        // Step 1: Bring the URL index up to date with rows appended since the last flush.
+        // Tabs whose grid ends before the first unindexed row have nothing new to read.
+        List<String> tabs = new ArrayList<>(articlesByTab.keySet());
+        List<String> staleTabs = tabs.stream()
+                .filter(tab -> urlIndex.nextRow(tab) <= layout.gridRowCount(tab))
+                .toList();
+        if (!staleTabs.isEmpty()) {
+            List<ValueRange> pendingRows = safeBatchGetWithRetry(service,
+                    staleTabs.stream().map(urlIndex::pendingRange).toList());
+            for (int i = 0; i < staleTabs.size(); i++) {
+                urlIndex.refresh(staleTabs.get(i), pendingRows.get(i));
+            }
+        }
 
-        // Step 1: Check for duplicates
-        ValueRange existingRows = safeGetWithRetry(service, monthSheetName + "!C2:C"); // Column C = URL
-        List<List<Object>> values = existingRows.getValues();
-        if (values != null) {
-            for (List<Object> row : values) {
-                if (!row.isEmpty() && article.getUrl().equalsIgnoreCase(row.get(0).toString())) {
-                    duplicateCount++;
+        int written = 0;
+        for (String tab : tabs) {
+            // Step 2: Prepare rows, skipping duplicates with a local lookup
+            List<String> claimedUrls = new ArrayList<>();
+            List<List<Object>> rows = new ArrayList<>();
+            for (ArticleDTO article : articlesByTab.get(tab)) {
+                if (!urlIndex.claim(tab, article.getUrl())) {
                     log.info("Skipping duplicate article: {}", article.getTitle());
-                    return;
+                    continue;
                 }
+                claimedUrls.add(article.getUrl());
+                rows.add(toRow(article));
+            }
+            if (rows.isEmpty()) {
+                continue;
             }
+
+            // Step 3: Append the tab's rows in one call with retry
+            try {
+                safeAppendWithRetry(service, tab + "!A1", new ValueRange().setValues(rows));
+            } catch (IOException e) {
+                urlIndex.unclaim(tab, claimedUrls);
+                throw e;
+            }
+            urlIndex.recordAppended(tab, rows.size());
+            written += rows.size();
+        }
+        log.info("Wrote {} rows across {} monthly sheets", written, tabs.size());
+        meterRegistry.counter("sheets.rows.written").increment(written);
+
+        if (layout.tabsAdded()) {
+            reorderMonthlySheets(service, layout.sheets());
         }
+    }
 
-        // Step 2: Prepare row
+    private List<Object> toRow(ArticleDTO article) {
         String trimmedSummary = article.getSummary();
         if (trimmedSummary != null && trimmedSummary.length() > 100) {
             trimmedSummary = trimmedSummary.substring(0, 100) + "...";
         }
 
-        List<Object> row = Arrays.asList(
+        return Arrays.asList(
                 article.getPublishedDate() != null ? article.getPublishedDate().toString() : "",
                 article.getTitle(),
                 article.getUrl(),
@@ -77,35 +156,10 @@ public class GoogleSheetService {
                 article.getSource() != null ? article.getSource() : "",
                 trimmedSummary
         );
-
-        ValueRange body = new ValueRange().setValues(Collections.singletonList(row));
-
-        // Step 3: Append row with retry
-        safeAppendWithRetry(service, monthSheetName + "!A1", body);
     }
 
     private Sheets getSheetsService() throws IOException, GeneralSecurityException {
-        String base64Creds = System.getenv("GOOGLE_CREDS_BASE64");
-
-        if (base64Creds == null || base64Creds.isBlank()) {
-            throw new IllegalStateException("GOOGLE_CREDS_BASE64 environment variable not set");
-        }
-
-        byte[] decodedBytes = Base64.getDecoder().decode(base64Creds);
-        File tempFile = File.createTempFile("google-creds", ".json");
-        Files.write(tempFile.toPath(), decodedBytes);
-
-        GoogleCredentials googleCredentials = GoogleCredentials.fromStream(new FileInputStream(tempFile))
-                .createScoped(Collections.singletonList("https://www.googleapis.com/auth/spreadsheets"));
-
-        ServiceAccountCredentials credentials = (ServiceAccountCredentials) googleCredentials;
-
-        return new Sheets.Builder(
-                GoogleNetHttpTransport.newTrustedTransport(),
-                JacksonFactory.getDefaultInstance(),
-                new HttpCredentialsAdapter(credentials))
-                .setApplicationName(APPLICATION_NAME)
-                .build();
+        return sheetsClient.get();
     }
 
     private String getMonthlySheetName(String dateString) {
@@ -115,95 +169,127 @@ public class GoogleSheetService {
         return "Articles_" + dateString.substring(0, 7); // e.g., 2025-07
     }
 
-    private void ensureSheetExists(Sheets service, String sheetName) throws IOException {
-        List<String> existingSheets = service.spreadsheets()
+    private record SheetLayout(List<SheetProperties> sheets, boolean tabsAdded) {
+        int gridRowCount(String title) {
+            return sheets.stream()
+                    .filter(props -> title.equals(props.getTitle()))
+                    .map(props -> props.getGridProperties() != null ? props.getGridProperties().getRowCount() : null)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(0);
+        }
+    }
+
+    /**
+     * Creates any missing tabs (with a formatted header row) in one structural batchUpdate.
+     */
+    private SheetLayout ensureSheetsExist(Sheets service, Collection<String> sheetNames) throws IOException {
+        List<SheetProperties> existingSheets = service.spreadsheets()
                 .get(spreadsheetId)
                 .execute()
                 .getSheets()
                 .stream()
-                .map(sheet -> sheet.getProperties().getTitle())
+                .map(com.google.api.services.sheets.v4.model.Sheet::getProperties)
                 .toList();
+        Set<String> existingTitles = existingSheets.stream()
+                .map(SheetProperties::getTitle)
+                .collect(Collectors.toSet());
 
-        if (!existingSheets.contains(sheetName)) {
-            var addSheetRequest = new com.google.api.services.sheets.v4.model.Request()
-                    .setAddSheet(new com.google.api.services.sheets.v4.model.AddSheetRequest()
-                            .setProperties(new com.google.api.services.sheets.v4.model.SheetProperties()
-                                    .setTitle(sheetName)));
+        List<String> missing = sheetNames.stream().filter(name -> !existingTitles.contains(name)).toList();
+        if (missing.isEmpty()) {
+            return new SheetLayout(existingSheets, false);
+        }
+
+        List<Request> addSheetRequests = missing.stream()
+                .map(name -> new Request().setAddSheet(new AddSheetRequest()
+                        .setProperties(new SheetProperties().setTitle(name))))
+                .toList();
 
-            var batchUpdateRequest = new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
-                    .setRequests(List.of(addSheetRequest));
+        var response = service.spreadsheets()
+                .batchUpdate(spreadsheetId, new BatchUpdateSpreadsheetRequest().setRequests(addSheetRequests))
+                .execute();
 
-            var response = service.spreadsheets().batchUpdate(spreadsheetId, batchUpdateRequest).execute();
+        List<SheetProperties> added = response.getReplies().stream()
+                .map(reply -> reply.getAddSheet().getProperties())
+                .toList();
 
-            Integer newSheetId = response.getReplies().get(0).getAddSheet().getProperties().getSheetId();
+        List<Object> headers = List.of("Date", "Title", "URL", "Sentiment", "Themes", "Tone", "Authorities", "Location", "Festival", "Festival Name", "Source", "Summary");
+        List<ValueRange> headerRows = missing.stream()
+                .map(name -> new ValueRange().setRange(name + "!A1").setValues(List.of(headers)))
+                .toList();
+        service.spreadsheets().values()
+                .batchUpdate(spreadsheetId, new BatchUpdateValuesRequest()
+                        .setValueInputOption("RAW")
+                        .setData(headerRows))
+                .execute();
+
+        com.google.api.services.sheets.v4.model.CellFormat format = new com.google.api.services.sheets.v4.model.CellFormat()
+                .setTextFormat(new com.google.api.services.sheets.v4.model.TextFormat().setBold(true))
+                .setBackgroundColor(new com.google.api.services.sheets.v4.model.Color()
+                        .setRed(0.9f).setGreen(0.9f).setBlue(0.9f));
+
+        List<Request> formatRequests = added.stream()
+                .map(props -> new Request().setRepeatCell(new com.google.api.services.sheets.v4.model.RepeatCellRequest()
+                        .setRange(new com.google.api.services.sheets.v4.model.GridRange()
+                                .setSheetId(props.getSheetId())
+                                .setStartRowIndex(0)
+                                .setEndRowIndex(1)) // Header row only
+                        .setCell(new com.google.api.services.sheets.v4.model.CellData().setUserEnteredFormat(format))
+                        .setFields("userEnteredFormat(backgroundColor,textFormat)")))
+                .toList();
 
-            List<Object> headers = List.of("Date", "Title", "URL", "Sentiment", "Themes", "Tone", "Authorities", "Location", "Festival", "Festival Name", "Source", "Summary");
-            ValueRange headerRow = new ValueRange().setValues(List.of(headers));
+        service.spreadsheets()
+                .batchUpdate(spreadsheetId, new BatchUpdateSpreadsheetRequest().setRequests(formatRequests))
+                .execute();
 
-            service.spreadsheets().values()
-                    .update(spreadsheetId, sheetName + "!A1", headerRow)
-                    .setValueInputOption("RAW")
-                    .execute();
+        missing.forEach(urlIndex::reset);
 
-            com.google.api.services.sheets.v4.model.CellFormat format = new com.google.api.services.sheets.v4.model.CellFormat()
-                    .setTextFormat(new com.google.api.services.sheets.v4.model.TextFormat().setBold(true))
-                    .setBackgroundColor(new com.google.api.services.sheets.v4.model.Color()
-                            .setRed(0.9f).setGreen(0.9f).setBlue(0.9f));
-
-            com.google.api.services.sheets.v4.model.RepeatCellRequest repeatCellRequest = new com.google.api.services.sheets.v4.model.RepeatCellRequest()
-                    .setRange(new com.google.api.services.sheets.v4.model.GridRange()
-                            .setSheetId(newSheetId)
-                            .setStartRowIndex(0)
-                            .setEndRowIndex(1)) // Header row only
-                    .setCell(new com.google.api.services.sheets.v4.model.CellData().setUserEnteredFormat(format))
-                    .setFields("userEnteredFormat(backgroundColor,textFormat)");
-
-            com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest formatRequest =
-                    new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
-                            .setRequests(List.of(new com.google.api.services.sheets.v4.model.Request()
-                                    .setRepeatCell(repeatCellRequest)));
-
-            service.spreadsheets().batchUpdate(spreadsheetId, formatRequest).execute();
-        }
+        List<SheetProperties> refreshed = new ArrayList<>(existingSheets);
+        refreshed.addAll(added);
+        return new SheetLayout(refreshed, true);
     }
 
-    private ValueRange safeGetWithRetry(Sheets service, String range) throws IOException {
-        int retries = 5;
-        int backoff = 1000;
+    private List<ValueRange> safeBatchGetWithRetry(Sheets service, List<String> ranges) throws IOException {
+        return withRetry("BATCH GET", () -> service.spreadsheets().values()
+                .batchGet(spreadsheetId)
+                .setRanges(ranges)
+                .execute()
+                .getValueRanges());
+    }
 
-        for (int i = 0; i < retries; i++) {
-            try {
-                return service.spreadsheets().values().get(spreadsheetId, range).execute();
-            } catch (IOException e) {
-                if (e.getMessage().contains("429")) {
-                    log.warn("GET hit rate limit (attempt {}), retrying in {}ms", i + 1, backoff);
-                    try {
-                        Thread.sleep(backoff);
-                    } catch (InterruptedException ignored) {}
-                    backoff *= 2;
-                } else {
-                    throw e;
-                }
-            }
-        }
+    private void safeAppendWithRetry(Sheets service, String range, ValueRange valueRange) throws IOException {
+        withRetry("APPEND", () -> service.spreadsheets().values()
+                .append(spreadsheetId, range, valueRange)
+                .setValueInputOption("USER_ENTERED")
+                .execute());
+    }
 
-        throw new IOException("GET failed after retries due to rate limiting.");
+    @FunctionalInterface
+    private interface SheetsCall<T> {
+        T execute() throws IOException;
     }
 
-    private void safeAppendWithRetry(Sheets service, String range, ValueRange valueRange) throws IOException {
+    /**
+     * Runs a Sheets API call, retrying 429s with exponential backoff. Every attempt is timed as
+     * {@code sheets.request} and every 429 retry counted as {@code sheets.retries}.
+     */
+    private <T> T withRetry(String operation, SheetsCall<T> call) throws IOException {
         int retries = 5;
         int backoff = 1000;
 
         for (int i = 0; i < retries; i++) {
+            Timer.Sample sample = Timer.start(meterRegistry);
             try {
-                service.spreadsheets().values()
-                        .append(spreadsheetId, range, valueRange)
-                        .setValueInputOption("USER_ENTERED")
-                        .execute();
-                return;
+                T result = call.execute();
+                sample.stop(meterRegistry.timer("sheets.request", "operation", operation, "outcome", "success"));
+                return result;
             } catch (IOException e) {
-                if (e.getMessage().contains("429")) {
-                    log.warn("APPEND hit rate limit (attempt {}), retrying in {}ms", i + 1, backoff);
+                boolean rateLimited = e.getMessage() != null && e.getMessage().contains("429");
+                sample.stop(meterRegistry.timer("sheets.request", "operation", operation,
+                        "outcome", rateLimited ? "rate_limited" : "error"));
+                if (rateLimited) {
+                    meterRegistry.counter("sheets.retries", "operation", operation).increment();
+                    log.warn("{} hit rate limit (attempt {}), retrying in {}ms", operation, i + 1, backoff);
                     try {
                         Thread.sleep(backoff);
                     } catch (InterruptedException ignored) {}
@@ -214,48 +300,53 @@ public class GoogleSheetService {
             }
         }
 
-        throw new IOException("APPEND failed after retries due to rate limiting.");
+        throw new IOException(operation + " failed after retries due to rate limiting.");
     }
 
     public int getDuplicateCount() {
-        return duplicateCount;
+        return urlIndex.getDuplicateCount();
     }
 
     public void reorderMonthlySheets() throws IOException, GeneralSecurityException {
         Sheets service = getSheetsService();
 
-        List<com.google.api.services.sheets.v4.model.Sheet> sheets = service.spreadsheets()
+        List<SheetProperties> sheets = service.spreadsheets()
                 .get(spreadsheetId)
                 .execute()
-                .getSheets();
+                .getSheets()
+                .stream()
+                .map(com.google.api.services.sheets.v4.model.Sheet::getProperties)
+                .toList();
+
+        reorderMonthlySheets(service, sheets);
+    }
 
-        List<com.google.api.services.sheets.v4.model.Sheet> sorted = sheets.stream()
-                .filter(s -> s.getProperties().getTitle().matches("^Articles_\\d{4}-\\d{2}$"))
+    private void reorderMonthlySheets(Sheets service, List<SheetProperties> sheets) throws IOException {
+        List<SheetProperties> sorted = sheets.stream()
+                .filter(s -> s.getTitle().matches("^Articles_\\d{4}-\\d{2}$"))
                 .sorted((s1, s2) -> {
-                    String title1 = s1.getProperties().getTitle().split("_")[1];
-                    String title2 = s2.getProperties().getTitle().split("_")[1];
+                    String title1 = s1.getTitle().split("_")[1];
+                    String title2 = s2.getTitle().split("_")[1];
                     return title2.compareTo(title1); // reverse chronological order
                 })
                 .toList();
 
-        List<com.google.api.services.sheets.v4.model.Request> requests = new java.util.ArrayList<>();
+        List<Request> requests = new ArrayList<>();
 
         for (int i = 0; i < sorted.size(); i++) {
             var sheet = sorted.get(i);
             var updateRequest = new com.google.api.services.sheets.v4.model.UpdateSheetPropertiesRequest()
-                    .setProperties(new com.google.api.services.sheets.v4.model.SheetProperties()
-                            .setSheetId(sheet.getProperties().getSheetId())
+                    .setProperties(new SheetProperties()
+                            .setSheetId(sheet.getSheetId())
                             .setIndex(i + 1)) // place after Summary if needed
                     .setFields("index");
 
-            requests.add(new com.google.api.services.sheets.v4.model.Request().setUpdateSheetProperties(updateRequest));
+            requests.add(new Request().setUpdateSheetProperties(updateRequest));
         }
 
         if (!requests.isEmpty()) {
             service.spreadsheets()
-                    .batchUpdate(spreadsheetId,
-                            new com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest()
-                                    .setRequests(requests))
+                    .batchUpdate(spreadsheetId, new BatchUpdateSpreadsheetRequest().setRequests(requests))
                     .execute();
             log.info("Reordered {} monthly sheets in reverse order successfully.", sorted.size());
         }
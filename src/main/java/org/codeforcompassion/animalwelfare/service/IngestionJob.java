@@ -0,0 +1,132 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionReport;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionRequest;
+import org.codeforcompassion.animalwelfare.pipeline.PipelineProgress;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One asynchronous ingestion run started through the API, with its live progress and the
+ * SSE subscribers following it.
+ */
+@Getter
+public class IngestionJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private final String id;
+    // Parameters as submitted, used for the single-flight check; request is what actually runs
+    private final IngestionRequest key;
+    private final IngestionRequest request;
+    private final PipelineProgress progress = new PipelineProgress();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+    private volatile boolean cancelRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile IngestionReport report;
+    private volatile String error;
+    private volatile Future<?> future;
+    @Getter(AccessLevel.NONE)
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    IngestionJob(String id, IngestionRequest key, IngestionRequest request) {
+        this.id = id;
+        this.key = key;
+        this.request = request;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    public boolean isFinished() {
+        Status current = status.get();
+        return current != Status.QUEUED && current != Status.RUNNING;
+    }
+
+    void attach(Future<?> runFuture) {
+        this.future = runFuture;
+        if (cancelRequested) {
+            runFuture.cancel(true);
+        }
+    }
+
+    boolean markRunning() {
+        if (!status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+            return false;
+        }
+        startedAt = LocalDateTime.now();
+        return true;
+    }
+
+    void markFinished(Status outcome, IngestionReport runReport, String failure) {
+        this.report = runReport;
+        this.error = failure;
+        this.finishedAt = LocalDateTime.now();
+        status.set(outcome);
+        done.countDown();
+    }
+
+    /**
+     * Blocks until the job has finished.
+     *
+     * @return the run's report, or {@code null} if it failed or was cancelled before starting
+     */
+    public IngestionReport awaitReport() throws InterruptedException {
+        done.await();
+        return report;
+    }
+
+    /**
+     * Requests cancellation: interrupts the run, which propagates into in-flight fetches and LLM calls.
+     *
+     * @return true if the job had not started yet and is now cancelled outright
+     */
+    boolean cancel() {
+        cancelRequested = true;
+        Future<?> runFuture = future;
+        if (runFuture != null) {
+            runFuture.cancel(true);
+        }
+        if (status.compareAndSet(Status.QUEUED, Status.CANCELLED)) {
+            finishedAt = LocalDateTime.now();
+            done.countDown();
+            return true;
+        }
+        return false;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("fromDate", request.fromDate());
+        params.put("totalLimit", request.totalLimit());
+        params.put("perFeedLimit", request.perFeedLimit());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("id", id);
+        snapshot.put("status", getStatus());
+        snapshot.put("params", params);
+        snapshot.put("backfillId", request.backfillId());
+        snapshot.put("createdAt", createdAt);
+        snapshot.put("startedAt", startedAt);
+        snapshot.put("finishedAt", finishedAt);
+        snapshot.put("processed", report != null ? report.processed() : null);
+        snapshot.put("stages", progress.snapshot());
+        snapshot.put("error", error);
+        return snapshot;
+    }
+}
@@ -0,0 +1,172 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionReport;
+import org.codeforcompassion.animalwelfare.pipeline.IngestionRequest;
+import org.codeforcompassion.animalwelfare.scheduler.ArticleProcessorScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs ingestion requests as background jobs on virtual threads. Submitting a parameter set that
+ * already has a queued or running job returns that job instead of starting a second run.
+ * Every job is a checkpointed backfill: a new one unless the request names an existing backfill
+ * to resume. Subscribers get a progress event every second and a final event when the job finishes.
+ */
+@Slf4j
+@Service
+public class IngestionJobService {
+
+    private static final int MAX_FINISHED_JOBS = 50;
+    private static final long SSE_TIMEOUT_MILLIS = Duration.ofHours(2).toMillis();
+
+    private final ArticleProcessorScheduler scheduler;
+    private final BackfillCheckpointService checkpoints;
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<IngestionRequest, IngestionJob> activeByRequest = new ConcurrentHashMap<>();
+    private final ExecutorService runner = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService progressTicker = Executors.newSingleThreadScheduledExecutor();
+
+    public IngestionJobService(ArticleProcessorScheduler scheduler, BackfillCheckpointService checkpoints) {
+        this.scheduler = scheduler;
+        this.checkpoints = checkpoints;
+        progressTicker.scheduleWithFixedDelay(this::broadcastProgress, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public IngestionJob submit(IngestionRequest request) {
+        IngestionJob active = activeByRequest.get(request);
+        if (active != null) {
+            return active;
+        }
+        // The backfill record is a Mongo insert, so it is created outside the map's locking
+        IngestionRequest runnable = request.backfillId() != null
+                ? request
+                : request.withBackfillId(checkpoints.start(request).getId());
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), request, runnable);
+        active = activeByRequest.putIfAbsent(request, job);
+        if (active != null) {
+            // Lost a race with an identical submission; its job runs instead
+            if (runnable != request) {
+                checkpoints.discard(runnable.backfillId());
+            }
+            return active;
+        }
+        jobs.put(job.getId(), job);
+        evictFinishedJobs();
+        job.attach(runner.submit(() -> run(job)));
+        log.info("Started ingestion job {} (backfill {}) from {}", job.getId(), runnable.backfillId(), request.fromDate());
+        return job;
+    }
+
+    public boolean hasActiveJobs() {
+        return !activeByRequest.isEmpty();
+    }
+
+    public IngestionJob get(String id) {
+        return jobs.get(id);
+    }
+
+    public List<IngestionJob> list() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(IngestionJob::getCreatedAt).reversed())
+                .toList();
+    }
+
+    public IngestionJob cancel(String id) {
+        IngestionJob job = jobs.get(id);
+        if (job != null && !job.isFinished()) {
+            log.info("Cancelling ingestion job {}", id);
+            if (job.cancel()) {
+                finish(job);
+            }
+        }
+        return job;
+    }
+
+    public SseEmitter subscribe(IngestionJob job) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> job.getEmitters().remove(emitter));
+        emitter.onTimeout(() -> job.getEmitters().remove(emitter));
+        emitter.onError(e -> job.getEmitters().remove(emitter));
+        job.getEmitters().add(emitter);
+
+        send(job, emitter, "progress");
+        // Covers a job that finished before the emitter was registered
+        if (job.isFinished()) {
+            send(job, emitter, "done");
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void run(IngestionJob job) {
+        if (!job.markRunning()) {
+            return;
+        }
+        try {
+            checkpoints.touch(job.getRequest().backfillId());
+            IngestionReport report = scheduler.process(job.getRequest(), job.getProgress());
+            boolean cancelled = Thread.currentThread().isInterrupted() || job.isCancelRequested();
+            job.markFinished(cancelled ? IngestionJob.Status.CANCELLED : IngestionJob.Status.SUCCEEDED, report, null);
+        } catch (Exception e) {
+            log.error("Ingestion job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.markFinished(IngestionJob.Status.FAILED, null, e.getMessage());
+        } finally {
+            finish(job);
+        }
+    }
+
+    private void finish(IngestionJob job) {
+        activeByRequest.remove(job.getKey(), job);
+        log.info("Ingestion job {} finished: {}", job.getId(), job.getStatus());
+        for (SseEmitter emitter : job.getEmitters()) {
+            send(job, emitter, "done");
+            emitter.complete();
+        }
+    }
+
+    private void broadcastProgress() {
+        for (IngestionJob job : jobs.values()) {
+            if (!job.isFinished()) {
+                job.getEmitters().forEach(emitter -> send(job, emitter, "progress"));
+            }
+        }
+    }
+
+    private void send(IngestionJob job, SseEmitter emitter, String event) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(job.snapshot()));
+        } catch (IOException | IllegalStateException e) {
+            job.getEmitters().remove(emitter);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        Collection<IngestionJob> finished = jobs.values().stream().filter(IngestionJob::isFinished).toList();
+        finished.stream()
+                .sorted(Comparator.comparing(IngestionJob::getCreatedAt))
+                .limit(Math.max(0, finished.size() - MAX_FINISHED_JOBS))
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        progressTicker.shutdownNow();
+        activeByRequest.values().forEach(IngestionJob::cancel);
+        runner.shutdownNow();
+    }
+}
@@ -0,0 +1,38 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation counter for the insight data set. Writers bump it after persisting new
+ * insights; read caches and ETags embed the generation, so a bump invalidates them all.
+ * The counter lives in memory, so ETags also carry the epoch (this instance's start time)
+ * to keep a restarted or second instance from reissuing a tag for different data.
+ */
+@Component
+public class InsightDataVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Instant lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public void bump() {
+        lastModified = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        generation.incrementAndGet();
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,121 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.codeforcompassion.animalwelfare.model.CachedAiInsight;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams insights straight from a Mongo cursor to an output stream as NDJSON or CSV,
+ * one document at a time, so memory use stays flat regardless of the date range.
+ */
+@Service
+@RequiredArgsConstructor
+public class InsightExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    // Export column -> accessor; Mongo stores url as _id
+    private static final Map<String, Function<CachedAiInsight, Object>> FIELDS = new LinkedHashMap<>();
+    static {
+        FIELDS.put("url", CachedAiInsight::getUrl);
+        FIELDS.put("title", CachedAiInsight::getTitle);
+        FIELDS.put("summary", CachedAiInsight::getSummary);
+        FIELDS.put("publishedDate", CachedAiInsight::getPublishedDate);
+        FIELDS.put("sentiment", CachedAiInsight::getSentiment);
+        FIELDS.put("themes", CachedAiInsight::getThemes);
+        FIELDS.put("festivalLinked", CachedAiInsight::isFestivalLinked);
+        FIELDS.put("festivalName", CachedAiInsight::getFestivalName);
+        FIELDS.put("tone", CachedAiInsight::getTone);
+        FIELDS.put("authorities", CachedAiInsight::getAuthorities);
+        FIELDS.put("location", CachedAiInsight::getLocation);
+        FIELDS.put("cachedAt", CachedAiInsight::getCachedAt);
+    }
+
+    private static final int CURSOR_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Resolves the requested field list against the known export columns.
+     *
+     * @throws IllegalArgumentException for unknown field names
+     */
+    public List<String> resolveFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return List.copyOf(FIELDS.keySet());
+        }
+        List<String> requested = Stream.of(fields.split(","))
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .distinct()
+                .toList();
+        List<String> unknown = requested.stream().filter(f -> !FIELDS.containsKey(f)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown export fields: " + unknown + ". Allowed: " + FIELDS.keySet());
+        }
+        return requested;
+    }
+
+    public void export(LocalDate from, LocalDate to, List<String> fields, Format format, OutputStream out) throws IOException {
+        Query query = new Query(Criteria.where("publishedDate").gte(from).lte(to))
+                .with(Sort.by(Sort.Direction.ASC, "publishedDate"))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+        query.fields().include(fields.stream().map(f -> "url".equals(f) ? "_id" : f).toArray(String[]::new));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(fields.stream().map(InsightExportService::csv).collect(Collectors.joining(",")));
+            writer.write('\n');
+        }
+
+        try (Stream<CachedAiInsight> insights = mongoTemplate.stream(query, CachedAiInsight.class)) {
+            for (CachedAiInsight insight : (Iterable<CachedAiInsight>) insights::iterator) {
+                if (format == Format.CSV) {
+                    writer.write(fields.stream()
+                            .map(f -> csv(FIELDS.get(f).apply(insight)))
+                            .collect(Collectors.joining(",")));
+                } else {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    fields.forEach(f -> row.put(f, FIELDS.get(f).apply(insight)));
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof Collection<?> values
+                ? values.stream().map(String::valueOf).collect(Collectors.joining("; "))
+                : value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
@@ -0,0 +1,72 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import org.codeforcompassion.animalwelfare.config.InsightCacheConfig;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Size- and time-bounded (W-TinyLFU) cache for read-only insight endpoints. Keys combine the
+ * data generation, the endpoint and its normalized parameters, so bumping
+ * {@link InsightDataVersion} makes every earlier entry unreachable; Caffeine then evicts them.
+ */
+@Component
+public class InsightResponseCache {
+
+    private final InsightDataVersion dataVersion;
+
+    @Getter
+    private final Cache<String, Object> cache;
+
+    public InsightResponseCache(InsightDataVersion dataVersion, InsightCacheConfig config, MeterRegistry meterRegistry) {
+        this.dataVersion = dataVersion;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(Duration.ofMinutes(config.getExpireAfterWriteMinutes()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "insightResponses");
+    }
+
+    /**
+     * Builds the cache key for an endpoint call. Parameter names are sorted and values trimmed
+     * and lower-cased; today's date is included because ranges such as "week" are relative.
+     */
+    public String key(String endpoint, Map<String, ?> params) {
+        StringBuilder key = new StringBuilder()
+                .append(dataVersion.getGeneration()).append('|')
+                .append(LocalDate.now()).append('|')
+                .append(endpoint);
+        new TreeMap<>(params).forEach((name, value) -> key.append('|').append(name).append('=')
+                .append(value == null ? "" : value.toString().trim().toLowerCase()));
+        return key.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("generation", dataVersion.getGeneration());
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,189 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.model.CachedAiInsight;
+import org.codeforcompassion.animalwelfare.model.FestivalTrendDTO;
+import org.codeforcompassion.animalwelfare.model.InsightDailyRollup;
+import org.codeforcompassion.animalwelfare.model.SummaryResponse;
+import org.codeforcompassion.animalwelfare.util.RollupKeys;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Maintains {@link InsightDailyRollup} buckets and answers dashboard range queries from them,
+ * so a 3-year summary sums at most ~1100 small documents instead of scanning every insight.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InsightRollupService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Adds a newly saved insight to its day's bucket with a single atomic upsert.
+     */
+    public void record(CachedAiInsight insight) {
+        if (insight.getPublishedDate() == null) {
+            return;
+        }
+        Update update = new Update().inc("total", 1);
+        String sentiment = sentimentKey(insight.getSentiment());
+        if (sentiment != null) {
+            update.inc("sentiments." + sentiment, 1);
+        }
+        if (insight.getThemes() != null) {
+            insight.getThemes().stream()
+                    .filter(theme -> theme != null && !theme.isBlank())
+                    .map(theme -> RollupKeys.encode(theme.toLowerCase()))
+                    .forEach(theme -> update.inc("themes." + theme, 1));
+        }
+        if (insight.getLocation() != null) {
+            update.inc("locations." + RollupKeys.encode(insight.getLocation().toLowerCase()), 1);
+        }
+        if (insight.isFestivalLinked() && insight.getFestivalName() != null && sentiment != null) {
+            update.inc("festivals." + RollupKeys.encode(insight.getFestivalName()) + "." + sentiment, 1);
+        }
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(insight.getPublishedDate())), update, InsightDailyRollup.class);
+    }
+
+    /**
+     * Sentiment, theme and location totals for days strictly after {@code fromDate}.
+     */
+    public SummaryResponse summarize(LocalDate fromDate) {
+        Map<String, Long> sentiments = new HashMap<>();
+        Map<String, Long> themes = new HashMap<>();
+        Map<String, Long> locations = new HashMap<>();
+        for (InsightDailyRollup rollup : rollupsFrom(Criteria.where("_id").gt(fromDate))) {
+            sumInto(sentiments, rollup.getSentiments());
+            sumInto(themes, rollup.getThemes());
+            sumInto(locations, rollup.getLocations());
+        }
+
+        SummaryResponse summary = new SummaryResponse();
+        summary.setPositive(sentiments.getOrDefault("POSITIVE", 0L));
+        summary.setNegative(sentiments.getOrDefault("NEGATIVE", 0L));
+        summary.setThemeCounts(themes);
+        summary.setLocationCounts(locations);
+        return summary;
+    }
+
+    /**
+     * Positive/negative counts per festival for days on or after {@code fromDate}.
+     */
+    public List<FestivalTrendDTO> festivalTrends(LocalDate fromDate) {
+        Map<String, FestivalTrendDTO> byFestival = new TreeMap<>();
+        for (InsightDailyRollup rollup : rollupsFrom(Criteria.where("_id").gte(fromDate))) {
+            if (rollup.getFestivals() == null) {
+                continue;
+            }
+            rollup.getFestivals().forEach((encodedName, counts) -> {
+                String name = RollupKeys.decode(encodedName);
+                FestivalTrendDTO trend = byFestival.computeIfAbsent(name, n -> new FestivalTrendDTO(n, 0, 0));
+                trend.setPositive(trend.getPositive() + counts.getOrDefault("POSITIVE", 0L).intValue());
+                trend.setNegative(trend.getNegative() + counts.getOrDefault("NEGATIVE", 0L).intValue());
+            });
+        }
+        return new ArrayList<>(byFestival.values());
+    }
+
+    /**
+     * Builds the rollups from scratch on first start, when insights exist but no buckets do.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (!mongoTemplate.exists(new Query(), InsightDailyRollup.class)
+                    && mongoTemplate.exists(new Query(), CachedAiInsight.class)) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Skipping rollup backfill: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every daily bucket from {@code cached_ai_insights} in one streaming pass and
+     * replaces the rollup collection atomically.
+     *
+     * @return number of daily buckets written
+     */
+    public int rebuild() {
+        Query query = new Query(Criteria.where("publishedDate").ne(null));
+        query.fields().include("publishedDate", "sentiment", "themes", "location", "festivalLinked", "festivalName");
+
+        Map<LocalDate, InsightDailyRollup> rollups = new HashMap<>();
+        try (Stream<CachedAiInsight> insights = mongoTemplate.stream(query, CachedAiInsight.class)) {
+            insights.forEach(insight -> accumulate(rollups.computeIfAbsent(insight.getPublishedDate(),
+                    day -> InsightDailyRollup.builder().day(day).build()), insight));
+        }
+
+        // Build into a scratch collection and swap it in with one rename, so readers and concurrent
+        // record() upserts never see a half-cleared collection or hit a duplicate _id
+        String target = mongoTemplate.getCollectionName(InsightDailyRollup.class);
+        String scratch = target + "_rebuild";
+        mongoTemplate.dropCollection(scratch);
+        if (rollups.isEmpty()) {
+            mongoTemplate.remove(new Query(), InsightDailyRollup.class);
+        } else {
+            mongoTemplate.insert(rollups.values(), scratch);
+            mongoTemplate.getCollection(scratch).renameCollection(
+                    new MongoNamespace(mongoTemplate.getDb().getName(), target),
+                    new RenameCollectionOptions().dropTarget(true));
+        }
+        log.info("Rebuilt {} daily insight rollups", rollups.size());
+        return rollups.size();
+    }
+
+    private void accumulate(InsightDailyRollup rollup, CachedAiInsight insight) {
+        rollup.setTotal(rollup.getTotal() + 1);
+        String sentiment = sentimentKey(insight.getSentiment());
+        if (sentiment != null) {
+            rollup.getSentiments().merge(sentiment, 1L, Long::sum);
+        }
+        if (insight.getThemes() != null) {
+            insight.getThemes().stream()
+                    .filter(theme -> theme != null && !theme.isBlank())
+                    .map(theme -> RollupKeys.encode(theme.toLowerCase()))
+                    .forEach(theme -> rollup.getThemes().merge(theme, 1L, Long::sum));
+        }
+        if (insight.getLocation() != null) {
+            rollup.getLocations().merge(RollupKeys.encode(insight.getLocation().toLowerCase()), 1L, Long::sum);
+        }
+        if (insight.isFestivalLinked() && insight.getFestivalName() != null && sentiment != null) {
+            rollup.getFestivals()
+                    .computeIfAbsent(RollupKeys.encode(insight.getFestivalName()), k -> new HashMap<>())
+                    .merge(sentiment, 1L, Long::sum);
+        }
+    }
+
+    private List<InsightDailyRollup> rollupsFrom(Criteria dayCriteria) {
+        return mongoTemplate.find(new Query(dayCriteria), InsightDailyRollup.class);
+    }
+
+    private static void sumInto(Map<String, Long> target, Map<String, Long> source) {
+        if (source != null) {
+            source.forEach((key, count) -> target.merge(RollupKeys.decode(key), count, Long::sum));
+        }
+    }
+
+    private static String sentimentKey(String sentiment) {
+        return sentiment == null || sentiment.isBlank() ? null : RollupKeys.encode(sentiment.trim().toUpperCase());
+    }
+}
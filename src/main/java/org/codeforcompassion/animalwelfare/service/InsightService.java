@@ -4,8 +4,10 @@ package org.codeforcompassion.animalwelfare.service;
 import lombok.RequiredArgsConstructor;
 import org.codeforcompassion.animalwelfare.model.FestivalTrendDTO;
 import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.model.SummaryResponse;
 import org.codeforcompassion.animalwelfare.repository.CachedAiInsightRepository;
 import org.codeforcompassion.animalwelfare.scheduler.ArticleProcessorScheduler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -17,6 +19,12 @@ public class InsightService {
 
     private final CachedAiInsightRepository cachedAiInsightRepository;
 
+    private final InsightRollupService insightRollupService;
+
+    // Serve dashboard counts from insight_daily_rollups instead of aggregating raw insights
+    @Value("${insights.rollup.enabled:true}")
+    private boolean rollupEnabled;
+
     public List<FestivalTrendDTO> getFestivalTrends(String range) {
         LocalDate fromDate = switch (range.toLowerCase()) {
             case "month" -> LocalDate.now().minusMonths(1);
@@ -26,6 +34,14 @@ public class InsightService {
             default -> LocalDate.now().minusMonths(6);
         };
 
-        return cachedAiInsightRepository.aggregateFestivalTrends(fromDate);
+        return rollupEnabled
+                ? insightRollupService.festivalTrends(fromDate)
+                : cachedAiInsightRepository.aggregateFestivalTrends(fromDate);
+    }
+
+    public SummaryResponse getSummary(LocalDate fromDate) {
+        return rollupEnabled
+                ? insightRollupService.summarize(fromDate)
+                : cachedAiInsightRepository.aggregateSummary(fromDate);
     }
 }
@@ -0,0 +1,31 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Non-2xx response from the LLM provider, carrying the status code and any
+ * {@code Retry-After} hint so the rate limiter can decide whether and when to retry.
+ */
+@Getter
+public class LlmHttpException extends IOException {
+
+    private final int statusCode;
+    private final Duration retryAfter;
+
+    public LlmHttpException(int statusCode, Duration retryAfter, String message) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isRateLimited() {
+        return statusCode == 429;
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode == 408 || statusCode >= 500;
+    }
+}
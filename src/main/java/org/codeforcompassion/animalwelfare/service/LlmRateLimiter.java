@@ -0,0 +1,204 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.config.OpenAiRateLimitConfig;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side limiter for LLM calls. Every call first takes one request and its estimated
+ * tokens from per-minute token buckets, then a slot under an adaptive concurrency limit.
+ * The limit grows additively on success and halves on a 429 (AIMD), and a
+ * {@code Retry-After} hint pauses all new calls until it has elapsed. Retryable failures
+ * are retried with full-jitter exponential backoff.
+ */
+@Slf4j
+@Component
+public class LlmRateLimiter {
+
+    @FunctionalInterface
+    public interface LlmCall<T> {
+        T execute() throws IOException;
+    }
+
+    private final OpenAiRateLimitConfig config;
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+    private final MeterRegistry meterRegistry;
+
+    private double concurrencyLimit;
+    private int inFlight;
+    private long pausedUntilNanos;
+
+    public LlmRateLimiter(OpenAiRateLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.requestBucket = new TokenBucket(config.getRequestsPerMinute());
+        this.tokenBucket = new TokenBucket(config.getTokensPerMinute());
+        this.concurrencyLimit = config.getInitialConcurrency();
+        this.pausedUntilNanos = System.nanoTime();
+        Gauge.builder("llm.concurrency.limit", this, LlmRateLimiter::getConcurrencyLimit).register(meterRegistry);
+        Gauge.builder("llm.in_flight", this, LlmRateLimiter::getInFlight).register(meterRegistry);
+    }
+
+    public <T> T execute(int promptTokens, LlmCall<T> call) throws IOException {
+        int estimatedTokens = promptTokens + config.getExpectedCompletionTokens();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                acquire(estimatedTokens);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for LLM rate limit");
+            }
+            Duration delay;
+            try {
+                T result = call.execute();
+                onSuccess();
+                return result;
+            } catch (IOException e) {
+                delay = onFailure(e, attempt);
+                if (delay == null) {
+                    throw e;
+                }
+            } finally {
+                release();
+            }
+            // Back off without holding a concurrency slot; the next attempt acquires a fresh one
+            sleep(delay);
+        }
+    }
+
+    /**
+     * Reconciles the token bucket once the provider has reported actual usage for a call.
+     */
+    public void recordUsage(int estimatedPromptTokens, int actualTotalTokens) {
+        int estimated = estimatedPromptTokens + config.getExpectedCompletionTokens();
+        tokenBucket.adjust(actualTotalTokens - estimated);
+    }
+
+    public synchronized double getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void acquire(int estimatedTokens) throws InterruptedException {
+        requestBucket.take(1);
+        tokenBucket.take(Math.min(estimatedTokens, config.getTokensPerMinute()));
+        synchronized (this) {
+            while (true) {
+                long pause = pausedUntilNanos - System.nanoTime();
+                if (pause > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, pause);
+                } else if (inFlight >= (int) concurrencyLimit) {
+                    wait();
+                } else {
+                    inFlight++;
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    private synchronized void onSuccess() {
+        concurrencyLimit = Math.min(config.getMaxConcurrency(), concurrencyLimit + 1.0 / concurrencyLimit);
+    }
+
+    /**
+     * @return how long to wait before retrying, or {@code null} if the failure should be rethrown
+     */
+    private Duration onFailure(IOException e, int attempt) {
+        boolean retryable = !(e instanceof LlmHttpException http) || http.isRetryable();
+        if (e instanceof InterruptedIOException && Thread.currentThread().isInterrupted()) {
+            retryable = false;
+        }
+        if (!retryable || attempt >= config.getMaxRetries()) {
+            return null;
+        }
+
+        long capped = Math.min(config.getMaxBackoffMillis(), config.getBaseBackoffMillis() << Math.min(attempt, 20));
+        Duration delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(capped / 2, capped + 1));
+
+        if (e instanceof LlmHttpException http && http.isRateLimited()) {
+            synchronized (this) {
+                concurrencyLimit = Math.max(config.getMinConcurrency(), concurrencyLimit / 2);
+                if (http.getRetryAfter() != null) {
+                    delay = http.getRetryAfter().plusMillis(ThreadLocalRandom.current().nextLong(250));
+                    pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + http.getRetryAfter().toNanos());
+                }
+            }
+            meterRegistry.counter("llm.retries", "reason", "rate_limited").increment();
+            log.warn("LLM call rate limited (attempt {}), concurrency limit now {}, retrying in {}ms",
+                    attempt + 1, (int) getConcurrencyLimit(), delay.toMillis());
+        } else {
+            meterRegistry.counter("llm.retries", "reason", "error").increment();
+            log.warn("LLM call failed (attempt {}): {}, retrying in {}ms", attempt + 1, e.getMessage(), delay.toMillis());
+        }
+        return delay;
+    }
+
+    private static void sleep(Duration delay) throws InterruptedIOException {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during LLM retry backoff");
+        }
+    }
+
+    /**
+     * Refilling token bucket holding at most one minute of budget.
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(int perMinute) {
+            this.capacity = Math.max(1, perMinute);
+            this.refillPerNano = capacity / TimeUnit.MINUTES.toNanos(1);
+            this.available = capacity;
+        }
+
+        void take(int amount) throws InterruptedException {
+            while (true) {
+                long waitNanos;
+                synchronized (this) {
+                    refill();
+                    if (available >= amount) {
+                        available -= amount;
+                        return;
+                    }
+                    waitNanos = (long) ((amount - available) / refillPerNano);
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, TimeUnit.MILLISECONDS.toNanos(10)));
+            }
+        }
+
+        synchronized void adjust(int delta) {
+            refill();
+            available = Math.min(capacity, available - delta);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
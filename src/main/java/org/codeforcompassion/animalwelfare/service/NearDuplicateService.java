@@ -0,0 +1,65 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.config.NearDuplicateConfig;
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.model.CachedAiInsight;
+import org.codeforcompassion.animalwelfare.repository.CachedAiInsightRepository;
+import org.codeforcompassion.animalwelfare.util.SimHash;
+import org.codeforcompassion.animalwelfare.util.SimHashIndex;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.regex.Pattern;
+
+/**
+ * Fingerprints articles by title and summary so the same story arriving from several feeds,
+ * under different redirect URLs, is only classified and enriched once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NearDuplicateService {
+
+    // Google News titles end in " - Publisher", which differs between copies of the same story
+    private static final Pattern PUBLISHER_SUFFIX = Pattern.compile("\\s+-\\s+[^-]+$");
+
+    private final NearDuplicateConfig config;
+    private final CachedAiInsightRepository cachedAiInsightRepository;
+
+    /**
+     * A fresh index for one ingestion run, seeded with the insights of the last {@code historyDays} days.
+     *
+     * @return null when near-duplicate detection is disabled
+     */
+    public SimHashIndex newRunIndex() {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        SimHashIndex index = new SimHashIndex(config.getMaxDistance());
+        int seeded = 0;
+        for (CachedAiInsight insight : cachedAiInsightRepository.findFingerprintSources(LocalDate.now().minusDays(config.getHistoryDays()))) {
+            Long fingerprint = fingerprint(insight.getTitle(), insight.getSummary());
+            if (fingerprint != null) {
+                index.add(fingerprint, insight.getUrl());
+                seeded++;
+            }
+        }
+        log.info("Near-duplicate index seeded with {} recent insights", seeded);
+        return index;
+    }
+
+    public Long fingerprint(ArticleDTO article) {
+        return fingerprint(article.getTitle(), article.getSummary());
+    }
+
+    private Long fingerprint(String title, String summary) {
+        String headline = title != null ? PUBLISHER_SUFFIX.matcher(title).replaceFirst("") : "";
+        String text = headline + " " + (summary != null ? summary : "");
+        if (SimHash.tokenize(text).length < config.getMinTokens()) {
+            return null;
+        }
+        return SimHash.of(text);
+    }
+}
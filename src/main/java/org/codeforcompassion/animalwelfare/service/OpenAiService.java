@@ -2,8 +2,12 @@ package org.codeforcompassion.animalwelfare.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import org.codeforcompassion.animalwelfare.config.OpenAiBatchConfig;
+import org.codeforcompassion.animalwelfare.config.OpenAiExtractionConfig;
 import org.codeforcompassion.animalwelfare.model.ArticleDTO;
 import org.codeforcompassion.animalwelfare.model.CachedAiInsight;
 import org.codeforcompassion.animalwelfare.repository.CachedAiInsightRepository;
@@ -13,7 +17,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,17 +35,41 @@ public class OpenAiService {
     @Autowired
     private CachedAiInsightRepository cacheRepo;
 
+    @Autowired
+    private OpenAiExtractionConfig extractionConfig;
+
+    @Autowired
+    private OpenAiBatchConfig batchConfig;
+
     @Value("${openrouter.api.key}")
     private String apiKey;
 
     private static final String OPENAI_URL = "https://api.openai.com/v1/chat/completions";
 
-    private final OkHttpClient client = new OkHttpClient();
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private static final int BATCH_PROMPT_OVERHEAD_TOKENS = 80;
+
+    @Autowired
+    private OkHttpClient client;
+
+    @Autowired
+    private LlmRateLimiter rateLimiter;
+
+    @Autowired
+    private InsightRollupService insightRollupService;
+
+    @Autowired
+    private SheetOutboxService sheetOutbox;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private final ObjectMapper mapper = new ObjectMapper();
 
     public boolean isAnimalWelfareRelevant(ArticleDTO article) throws IOException {
         // Check cache first
-        Optional<CachedAiInsight> cached = cacheRepo.findByUrl(article.getUrl());
+        Optional<CachedAiInsight> cached = findCached(article);
         if (cached.isPresent()) {
             log.info("Relevance check (from cache) for: {}", article.getTitle());
             // If we trust cached sentiment means relevance was true earlier
@@ -46,23 +80,89 @@ public class OpenAiService {
                 "Title: " + article.getTitle() + "\n" +
                 "Summary: " + article.getSummary();
 
-        String responseText = callOpenAi(prompt);
+        String responseText = callOpenAi("relevance", prompt);
         return responseText.trim().toUpperCase().startsWith("YES");
     }
 
+    /**
+     * Screens many articles for relevance with as few prompts as the batch size and token
+     * budget allow. Each prompt returns an ID-keyed YES/NO array; articles whose verdict is
+     * missing or unparsable fall back to {@link #isAnimalWelfareRelevant(ArticleDTO)}. A failed
+     * call is rethrown.
+     * Articles are expected to have passed dedup already, so no cache lookup is made here.
+     *
+     * @return relevance verdicts in the same order as {@code articles}
+     */
+    public List<Boolean> classifyRelevanceBatch(List<ArticleDTO> articles) throws IOException {
+        List<Boolean> verdicts = new ArrayList<>(articles.size());
+        int batchSize = Math.max(1, batchConfig.getSize());
+        int start = 0;
+        while (start < articles.size()) {
+            int end = start;
+            int tokens = BATCH_PROMPT_OVERHEAD_TOKENS;
+            while (end < articles.size() && end - start < batchSize) {
+                int itemTokens = estimateTokens(articles.get(end));
+                if (end > start && tokens + itemTokens > batchConfig.getMaxPromptTokens()) {
+                    break;
+                }
+                tokens += itemTokens;
+                end++;
+            }
+            verdicts.addAll(classifyChunk(articles.subList(start, end)));
+            start = end;
+        }
+        return verdicts;
+    }
+
+    private List<Boolean> classifyChunk(List<ArticleDTO> chunk) throws IOException {
+        if (chunk.size() == 1) {
+            return List.of(isAnimalWelfareRelevant(chunk.get(0)));
+        }
+
+        StringBuilder prompt = new StringBuilder("""
+                For each news article below, decide whether it is about animal welfare in India.
+                Respond in strict JSON only, as an array with one entry per article:
+                [{"id": 1, "relevant": "YES"}, {"id": 2, "relevant": "NO"}]
+
+                """);
+        for (int i = 0; i < chunk.size(); i++) {
+            prompt.append("Article ").append(i + 1).append('\n')
+                    .append("Title: ").append(chunk.get(i).getTitle()).append('\n')
+                    .append("Summary: ").append(chunk.get(i).getSummary()).append("\n\n");
+        }
+
+        // HTTP and transport failures have already been retried by the rate limiter; they propagate
+        // rather than turning one failed call into a single call per article
+        String response = callOpenAi("relevance_batch", prompt.toString());
+
+        Map<Integer, Boolean> byId = new HashMap<>();
+        try {
+            for (JsonNode entry : readJson(response)) {
+                if (entry.hasNonNull("id") && entry.hasNonNull("relevant")) {
+                    byId.put(entry.get("id").asInt(), entry.get("relevant").asText().trim().toUpperCase().startsWith("YES"));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unparsable batch relevance response for {} articles, falling back to single checks: {}", chunk.size(), e.getMessage());
+        }
+
+        List<Boolean> verdicts = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Boolean verdict = byId.get(i + 1);
+            verdicts.add(verdict != null ? verdict : isAnimalWelfareRelevant(chunk.get(i)));
+        }
+        return verdicts;
+    }
+
+    private static int estimateTokens(ArticleDTO article) {
+        return estimateTokens("Article NN\nTitle: " + article.getTitle() + "\nSummary: " + article.getSummary() + "\n\n");
+    }
+
     public void enrichArticleWithInsights(ArticleDTO article) throws IOException {
-        Optional<CachedAiInsight> cachedOpt = cacheRepo.findByUrl(article.getUrl());
+        Optional<CachedAiInsight> cachedOpt = findCached(article);
         if (cachedOpt.isPresent()) {
-            CachedAiInsight cached = cachedOpt.get();
             log.info("Using cached AI insight for: {}", article.getTitle());
-
-            article.setSentiment(cached.getSentiment());
-            article.setThemes(cached.getThemes().toArray(String[]::new));
-            article.setTone(cached.getTone());
-            article.setAuthorities(cached.getAuthorities());
-            article.setLocation(cached.getLocation());
-            article.setFestivalLinked(cached.isFestivalLinked());
-            article.setFestivalName(cached.getFestivalName());
+            applyCached(article, cachedOpt.get());
             return;
         }
         log.info("Calling OpenAI for article: {}", article.getTitle());
@@ -84,25 +184,93 @@ public class OpenAiService {
         Summary: %s
         """.formatted(article.getTitle(), article.getSummary());
 
-        String response = callOpenAi(prompt);
-        JsonNode root = mapper.readTree(response);
-        article.setSentiment(root.get("sentiment").asText());
-        article.setThemes(mapper.convertValue(root.get("themes"), String[].class));
-        article.setTone(root.get("tone").asText());
-        article.setAuthorities(mapper.convertValue(root.get("authorities"), List.class));
-        article.setLocation(root.get("location").asText());
+        String response = callOpenAi("insights", prompt);
+        JsonNode root = readJson(response);
+        applyInsights(article, root);
 
-        boolean isLinked = isFestivalRelated(article);
-        article.setFestivalLinked(isLinked);
+        try {
+            detectFestival(article);
+        } catch (Exception e) {
+            log.error("Festival check failed for: {}", article.getTitle(), e);
+            article.setFestivalLinked(false);
+        }
+
+        saveInsight(article);
+    }
 
-        // Save to cache
+    /**
+     * Whether relevance, insights and festival info are extracted with a single combined call
+     * ({@code openai.extraction.mode=combined}) instead of the three-call legacy path.
+     */
+    public boolean isCombinedExtraction() {
+        return "combined".equalsIgnoreCase(extractionConfig.getMode());
+    }
+
+    /**
+     * Classifies and enriches an article in one LLM round trip. On a relevant verdict the
+     * article is populated with sentiment, themes, tone, authorities, location and festival
+     * info; persisting is left to {@link #saveInsight(ArticleDTO)}.
+     *
+     * @return whether the article is about animal welfare in India
+     */
+    public boolean extractCombined(ArticleDTO article) throws IOException {
+        Optional<CachedAiInsight> cached = findCached(article);
+        if (cached.isPresent()) {
+            log.info("Combined extraction (from cache) for: {}", article.getTitle());
+            applyCached(article, cached.get());
+            return true;
+        }
+
+        String prompt = """
+        You are an AI assistant analyzing Indian news articles related to animal welfare.
+        First decide whether the article is about animal welfare in India. If it is, extract structured insights
+        focusing on the **perspective toward animal welfare**, **harm/cruelty**, or **protection efforts**, and
+        determine whether it is related to **any festival or cultural/religious event** (for example Bakra Eid,
+        Gadhimai Festival, Jallikattu, Diwali, Holi, Durga Puja, World Animal Day, National Animal Rights Day),
+        including festivals that are criticized or debated.
+
+        Respond in strict JSON format:
+        {
+          "relevant": true/false,
+          "sentiment": "POSITIVE | NEGATIVE | NEUTRAL",
+          "themes": ["theme1", "theme2", "theme3"],
+          "tone": "Informative | Alarming | Supportive | Critical | Neutral",
+          "authorities": ["Police", "Court", "NGO", ...],
+          "location": "City or state mentioned in the article, or 'Unknown'",
+          "festivalLinked": true/false,
+          "festivalName": "Bakra Eid" or null
+        }
+        If "relevant" is false, the remaining fields may be omitted.
+
+        Title: %s
+
+        Summary: %s
+        """.formatted(article.getTitle(), article.getSummary());
+
+        JsonNode root = readJson(callOpenAi("combined", prompt));
+        if (!root.path("relevant").asBoolean(false)) {
+            return false;
+        }
+        applyInsights(article, root);
+        applyFestival(article, root);
+        return true;
+    }
+
+    private Optional<CachedAiInsight> findCached(ArticleDTO article) {
+        if (article.isDedupChecked()) {
+            return Optional.empty();
+        }
+        return cacheRepo.findByUrl(article.getUrl());
+    }
+
+    public void saveInsight(ArticleDTO article) {
         CachedAiInsight insight = CachedAiInsight.builder()
                 .url(article.getUrl())
                 .title(article.getTitle())
                 .summary(article.getSummary())
                 .publishedDate(article.getPublishedDate())
                 .sentiment(article.getSentiment())
-                .themes(List.of(article.getThemes()))
+                .themes(article.getThemes() != null ? List.of(article.getThemes()) : List.of())
                 .tone(article.getTone())
                 .authorities(article.getAuthorities())
                 .location(article.getLocation())
@@ -110,16 +278,95 @@ public class OpenAiService {
                 .festivalName(article.getFestivalName())
                 .cachedAt(LocalDateTime.now())
                 .build();
+        boolean isNew = article.isDedupChecked() || !cacheRepo.existsById(insight.getUrl());
         cacheRepo.save(insight);
+        // No multi-document transactions on a standalone Mongo: a failure here fails the save,
+        // and saving again (retry or backfill resume) rewrites both idempotently
+        if (sheetOutbox.isEnabled()) {
+            sheetOutbox.enqueue(article);
+        }
+        if (isNew) {
+            try {
+                insightRollupService.record(insight);
+            } catch (Exception e) {
+                log.warn("Rollup update failed for {} (rebuild via /api/insights/rollups/rebuild): {}", insight.getUrl(), e.getMessage());
+            }
+        }
         log.info("Cached AI insight for: {}", article.getTitle());
     }
 
+    private void applyCached(ArticleDTO article, CachedAiInsight cached) {
+        article.setSentiment(cached.getSentiment());
+        article.setThemes(cached.getThemes() != null ? cached.getThemes().toArray(String[]::new) : new String[0]);
+        article.setTone(cached.getTone());
+        article.setAuthorities(cached.getAuthorities());
+        article.setLocation(cached.getLocation());
+        article.setFestivalLinked(cached.isFestivalLinked());
+        article.setFestivalName(cached.getFestivalName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyInsights(ArticleDTO article, JsonNode root) {
+        article.setSentiment(root.path("sentiment").asText("NEUTRAL"));
+        article.setThemes(root.hasNonNull("themes") ? mapper.convertValue(root.get("themes"), String[].class) : new String[0]);
+        article.setTone(root.path("tone").asText("Neutral"));
+        article.setAuthorities(root.hasNonNull("authorities") ? mapper.convertValue(root.get("authorities"), List.class) : List.of());
+        article.setLocation(root.path("location").asText("Unknown"));
+    }
+
+    private boolean applyFestival(ArticleDTO article, JsonNode root) {
+        boolean isLinked = root.path("festivalLinked").asBoolean(false);
+        String festivalName = root.hasNonNull("festivalName")
+                ? root.get("festivalName").asText()
+                : null;
+        article.setFestivalLinked(isLinked);
+        article.setFestivalName(festivalName);
+        return isLinked;
+    }
+
+    /**
+     * Parses a JSON completion, tolerating the markdown code fences models sometimes wrap it in.
+     */
+    private JsonNode readJson(String response) throws IOException {
+        String json = response.trim();
+        if (json.startsWith("```")) {
+            json = json.substring(json.indexOf('\n') + 1);
+            int fence = json.lastIndexOf("```");
+            if (fence >= 0) {
+                json = json.substring(0, fence);
+            }
+        }
+        return mapper.readTree(json);
+    }
+
+
+    /**
+     * Sends one prompt through the rate limiter. Every HTTP attempt is timed as {@code llm.request}
+     * tagged with the call type and its outcome, and reported token usage is counted per call type.
+     */
+    private String callOpenAi(String callType, String prompt) throws IOException {
+        int promptTokens = estimateTokens(prompt);
+        return rateLimiter.execute(promptTokens, () -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try (Response response = client.newCall(buildRequest(prompt)).execute()) {
+                String content = extractContent(callType, response, promptTokens);
+                sample.stop(requestTimer(callType, null));
+                return content;
+            } catch (IOException e) {
+                sample.stop(requestTimer(callType, e));
+                throw e;
+            }
+        });
+    }
 
-    private String callOpenAi(String prompt) throws IOException {
-        OkHttpClient client = new OkHttpClient();
-        ObjectMapper mapper = new ObjectMapper();
-        MediaType mediaType = MediaType.parse("application/json");
+    private Timer requestTimer(String callType, Throwable error) {
+        String outcome = error == null ? "success"
+                : error instanceof LlmHttpException http ? "http_" + http.getStatusCode()
+                : error.getClass().getSimpleName();
+        return meterRegistry.timer("llm.request", "type", callType, "outcome", outcome);
+    }
 
+    private Request buildRequest(String prompt) throws IOException {
         // Build request payload
         String jsonBody = mapper.writeValueAsString(Map.of(
                 "model", "gpt-3.5-turbo",
@@ -128,87 +375,68 @@ public class OpenAiService {
                 )
         ));
 
-        RequestBody body = RequestBody.create(jsonBody, mediaType);
+        RequestBody body = RequestBody.create(jsonBody, JSON);
 
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(OPENAI_URL)
                 .addHeader("Authorization", "Bearer " + apiKey)
                 .addHeader("Content-Type", "application/json")
                 .post(body)
                 .build();
+    }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Unexpected code " + response);
-            }
-            String responseBody = response.body().string();
-            JsonNode jsonNode = mapper.readTree(responseBody);
-            return jsonNode.get("choices").get(0).get("message").get("content").asText();
+    private String extractContent(String callType, Response response, int promptTokens) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new LlmHttpException(response.code(), parseRetryAfter(response.header("Retry-After")),
+                    "Unexpected code " + response);
+        }
+        String responseBody = response.body().string();
+        JsonNode jsonNode = mapper.readTree(responseBody);
+        JsonNode usage = jsonNode.path("usage");
+        if (usage.hasNonNull("total_tokens")) {
+            rateLimiter.recordUsage(promptTokens, usage.get("total_tokens").asInt());
+            meterRegistry.counter("llm.tokens", "type", callType, "kind", "prompt").increment(usage.path("prompt_tokens").asInt());
+            meterRegistry.counter("llm.tokens", "type", callType, "kind", "completion").increment(usage.path("completion_tokens").asInt());
         }
+        return jsonNode.get("choices").get(0).get("message").get("content").asText();
+    }
+
+    private static Duration parseRetryAfter(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis((long) (Double.parseDouble(header.trim()) * 1000));
+        } catch (NumberFormatException ignored) {
+            // Not delta-seconds; fall through to HTTP-date
+        }
+        try {
+            ZonedDateTime retryAt = ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration wait = Duration.between(ZonedDateTime.now(), retryAt);
+            return wait.isNegative() ? Duration.ZERO : wait;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static int estimateTokens(String text) {
+        return text.length() / 4 + 1; // ~4 characters per token for English text
     }
 
     public boolean isFestivalRelated(ArticleDTO article) {
         try {
-            Optional<CachedAiInsight> cached = cacheRepo.findByUrl(article.getUrl());
+            Optional<CachedAiInsight> cached = findCached(article);
             if (cached.isPresent()) {
                 log.info("Festival check (from cache) for: {}", article.getTitle());
                 article.setFestivalLinked(cached.get().isFestivalLinked());
                 article.setFestivalName(cached.get().getFestivalName());
                 return cached.get().isFestivalLinked();
             }
-            String prompt = """
-                You are an AI assistant analyzing Indian news articles.
-                
-                Determine if the article is related to **any festival or cultural/religious event**, including those that involve **controversial practices, animal sacrifice, or religious traditions**. 
-                
-                Include festivals even if they are criticized or debated — for example: 
-                - Bakra Eid
-                - Gadhimai Festival
-                - Jallikattu
-                - Diwali, Holi, Durga Puja
-                - World Animal Day
-                - National Animal Rights Day (NARD)
-                - Awareness days, animal rights protests linked to festivals
-                
-                Respond in strict JSON format:
-                {
-                  "festivalLinked": true/false,
-                  "festivalName": "Bakra Eid" or null
-                }
-                
-                Title: %s
-                
-                Summary: %s
-                """.formatted(article.getTitle(), article.getSummary());
 
-
-            String response = callOpenAi(prompt);
-            JsonNode root = mapper.readTree(response);
-
-            boolean isLinked = root.get("festivalLinked").asBoolean();
-            String festivalName = root.has("festivalName") && !root.get("festivalName").isNull()
-                    ? root.get("festivalName").asText()
-                    : null;
-            article.setFestivalLinked(isLinked);
-            article.setFestivalName(festivalName);
+            boolean isLinked = detectFestival(article);
 
             // Store festival info in cache
-            CachedAiInsight insight = CachedAiInsight.builder()
-                    .url(article.getUrl())
-                    .title(article.getTitle())
-                    .summary(article.getSummary())
-                    .publishedDate(article.getPublishedDate())
-                    .sentiment(article.getSentiment())
-                    .themes(article.getThemes() != null ? List.of(article.getThemes()) : List.of())
-                    .tone(article.getTone())
-                    .authorities(article.getAuthorities())
-                    .location(article.getLocation())
-                    .festivalLinked(isLinked)
-                    .festivalName(festivalName)
-                    .cachedAt(LocalDateTime.now())
-                    .build();
-
-            cacheRepo.save(insight);
+            saveInsight(article);
             return isLinked;
 
         } catch (Exception e) {
@@ -217,4 +445,34 @@ public class OpenAiService {
         }
     }
 
-}
\ No newline at end of file
+    private boolean detectFestival(ArticleDTO article) throws IOException {
+        String prompt = """
+            You are an AI assistant analyzing Indian news articles.
+            
+            Determine if the article is related to **any festival or cultural/religious event**, including those that involve **controversial practices, animal sacrifice, or religious traditions**. 
+            
+            Include festivals even if they are criticized or debated — for example: 
+            - Bakra Eid
+            - Gadhimai Festival
+            - Jallikattu
+            - Diwali, Holi, Durga Puja
+            - World Animal Day
+            - National Animal Rights Day (NARD)
+            - Awareness days, animal rights protests linked to festivals
+            
+            Respond in strict JSON format:
+            {
+              "festivalLinked": true/false,
+              "festivalName": "Bakra Eid" or null
+            }
+            
+            Title: %s
+            
+            Summary: %s
+            """.formatted(article.getTitle(), article.getSummary());
+
+        String response = callOpenAi("festival", prompt);
+        return applyFestival(article, readJson(response));
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs {@code explain} (queryPlanner verbosity) for every query shape the repositories issue against
+ * {@code cached_ai_insights} and flags winning plans that fall back to a COLLSCAN. The shapes mirror
+ * the derived finders and {@code CustomInsightAggregationRepositoryImpl}; keep them in sync.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueryPlanDiagnosticsService {
+
+    private static final String COLLECTION = "cached_ai_insights";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${insights.diagnostics.explain-on-startup:true}")
+    private boolean explainOnStartup;
+
+    public record QueryPlan(String query, boolean collectionScan, List<String> stages, List<String> indexes, String error) {
+    }
+
+    public List<QueryPlan> explainAll() {
+        LocalDate from = LocalDate.now().minusYears(3);
+        LocalDate to = LocalDate.now();
+        Document byDateDesc = new Document("publishedDate", -1).append("_id", -1);
+
+        List<QueryPlan> plans = new ArrayList<>();
+        plans.add(explainFind("findByUrl", new Document("_id", "https://example.org/a"), null));
+        plans.add(explainFind("findByPublishedDateAfter",
+                new Document("publishedDate", new Document("$gt", from)), null));
+        plans.add(explainFind("findByPublishedDateBetween",
+                new Document("publishedDate", new Document("$gt", from).append("$lt", to)), null));
+        plans.add(explainFind("findByTitleAndPublishedDate",
+                new Document("title", "title").append("publishedDate", to), null));
+        plans.add(explainFind("findDedupKeys", new Document("$or", List.of(
+                new Document("_id", new Document("$in", List.of("https://example.org/a"))),
+                new Document("title", new Document("$in", List.of("title"))))), null));
+        plans.add(explainFind("findFingerprintSources",
+                new Document("publishedDate", new Document("$gte", from)), null));
+        plans.add(explainFind("findFiltered",
+                new Document("publishedDate", new Document("$gt", from)), byDateDesc));
+        plans.add(explainFind("findFiltered(sentiment)",
+                new Document("publishedDate", new Document("$gt", from))
+                        .append("sentiment", new Document("$in", List.of("POSITIVE", "positive", "Positive"))),
+                byDateDesc));
+        plans.add(explainFind("export",
+                new Document("publishedDate", new Document("$gte", from).append("$lte", to)),
+                new Document("publishedDate", 1)));
+        plans.add(explainAggregate("aggregateSummary",
+                new Document("publishedDate", new Document("$gt", from))));
+        plans.add(explainAggregate("aggregateFestivalTrends",
+                new Document("festivalLinked", true)
+                        .append("festivalName", new Document("$ne", null))
+                        .append("publishedDate", new Document("$gte", from))));
+        return plans;
+    }
+
+    public Map<String, Object> report() {
+        List<QueryPlan> plans = explainAll();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("collection", COLLECTION);
+        report.put("collectionScans", plans.stream().filter(QueryPlan::collectionScan).map(QueryPlan::query).toList());
+        report.put("plans", plans);
+        return report;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void explainOnStartup() {
+        if (!explainOnStartup) {
+            return;
+        }
+        for (QueryPlan plan : explainAll()) {
+            if (plan.error() != null) {
+                log.warn("⚠️ Could not explain {}: {}", plan.query(), plan.error());
+            } else if (plan.collectionScan()) {
+                log.warn("⚠️ {} runs as a COLLSCAN on {} (stages {})", plan.query(), COLLECTION, plan.stages());
+            }
+        }
+    }
+
+    private QueryPlan explainFind(String name, Document filter, Document sort) {
+        Document find = new Document("find", COLLECTION).append("filter", filter);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+        return explain(name, find);
+    }
+
+    private QueryPlan explainAggregate(String name, Document match) {
+        Document aggregate = new Document("aggregate", COLLECTION)
+                .append("pipeline", List.of(new Document("$match", match)))
+                .append("cursor", new Document());
+        return explain(name, aggregate);
+    }
+
+    private QueryPlan explain(String name, Document command) {
+        try {
+            Document result = mongoTemplate.getDb().runCommand(
+                    new Document("explain", command).append("verbosity", "queryPlanner"));
+            Set<String> stages = new LinkedHashSet<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            collectWinningPlans(result, stages, indexes);
+            return new QueryPlan(name, stages.contains("COLLSCAN"), List.copyOf(stages), List.copyOf(indexes), null);
+        } catch (Exception e) {
+            return new QueryPlan(name, false, List.of(), List.of(), e.getMessage());
+        }
+    }
+
+    // Aggregations nest the planner output under $cursor, and SBE plans under queryPlan, so search recursively
+    private static void collectWinningPlans(Object node, Set<String> stages, Set<String> indexes) {
+        if (node instanceof Document doc) {
+            for (Map.Entry<String, Object> entry : doc.entrySet()) {
+                if ("winningPlan".equals(entry.getKey())) {
+                    collectStages(entry.getValue(), stages, indexes);
+                } else if (!"rejectedPlans".equals(entry.getKey())) {
+                    collectWinningPlans(entry.getValue(), stages, indexes);
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> collectWinningPlans(item, stages, indexes));
+        }
+    }
+
+    private static void collectStages(Object node, Set<String> stages, Set<String> indexes) {
+        if (node instanceof Document doc) {
+            if (doc.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (doc.get("indexName") instanceof String indexName) {
+                indexes.add(indexName);
+            }
+            doc.values().forEach(value -> collectStages(value, stages, indexes));
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> collectStages(item, stages, indexes));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.config.RelevanceCacheConfig;
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.model.RelevanceVerdict;
+import org.codeforcompassion.animalwelfare.repository.RelevanceVerdictRepository;
+import org.codeforcompassion.animalwelfare.util.BloomFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Remembers articles the LLM judged not relevant, keyed by normalized URL.
+ * <p>
+ * Lookups go through a Bloom filter first: a negative answer means the URL was never
+ * rejected and costs nothing. Possible hits are answered from an LRU of recent verdicts,
+ * and only LRU misses fall through to Mongo. Both in-process layers are warmed from the
+ * {@code relevance_verdicts} collection at startup.
+ */
+@Slf4j
+@Service
+public class RelevanceVerdictCache {
+
+    private final RelevanceVerdictRepository verdictRepository;
+    private final MongoTemplate mongoTemplate;
+    private final RelevanceCacheConfig config;
+    private final BloomFilter bloomFilter;
+    private final Map<String, LocalDateTime> recent;
+
+    public RelevanceVerdictCache(RelevanceVerdictRepository verdictRepository,
+                                 MongoTemplate mongoTemplate,
+                                 RelevanceCacheConfig config) {
+        this.verdictRepository = verdictRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.config = config;
+        this.bloomFilter = new BloomFilter(config.getBloomExpectedInsertions(), config.getBloomFalsePositiveRate());
+        int capacity = Math.max(1, config.getLruCapacity());
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalDateTime> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Query query = new Query(Criteria.where("createdAt").gte(LocalDateTime.now().minusDays(config.getTtlDays())))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        query.fields().include("_id", "createdAt");
+
+        int loaded = 0;
+        try (Stream<RelevanceVerdict> verdicts = mongoTemplate.stream(query, RelevanceVerdict.class)) {
+            for (RelevanceVerdict verdict : (Iterable<RelevanceVerdict>) verdicts::iterator) {
+                bloomFilter.add(verdict.getUrl());
+                if (loaded < config.getLruCapacity()) {
+                    recent.put(verdict.getUrl(), verdict.getCreatedAt());
+                }
+                loaded++;
+            }
+        } catch (Exception e) {
+            log.warn("Could not warm relevance verdict cache: {}", e.getMessage());
+        }
+        log.info("Warmed relevance verdict cache with {} rejected URLs", loaded);
+    }
+
+    public boolean isKnownIrrelevant(String url) {
+        if (!bloomFilter.mightContain(url)) {
+            return false;
+        }
+        LocalDateTime createdAt = recent.get(url);
+        if (createdAt == null) {
+            createdAt = verdictRepository.findById(url).map(RelevanceVerdict::getCreatedAt).orElse(null);
+            if (createdAt == null) {
+                return false;
+            }
+            recent.put(url, createdAt);
+        }
+        return createdAt.isAfter(LocalDateTime.now().minusDays(config.getTtlDays()));
+    }
+
+    public void recordIrrelevant(Collection<ArticleDTO> articles) {
+        if (articles.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<RelevanceVerdict> verdicts = articles.stream()
+                .map(article -> RelevanceVerdict.builder()
+                        .url(article.getUrl())
+                        .title(article.getTitle())
+                        .createdAt(now)
+                        .build())
+                .toList();
+        verdictRepository.saveAll(verdicts);
+        for (RelevanceVerdict verdict : verdicts) {
+            bloomFilter.add(verdict.getUrl());
+            recent.put(verdict.getUrl(), now);
+        }
+    }
+}
@@ -4,25 +4,65 @@ import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.SyndFeedInput;
 import com.rometools.rome.io.XmlReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.config.FeedFetchConfig;
 import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.model.CachedAiInsight;
+import org.codeforcompassion.animalwelfare.model.FeedState;
 import org.codeforcompassion.animalwelfare.repository.CachedAiInsightRepository;
+import org.codeforcompassion.animalwelfare.repository.FeedStateRepository;
+import org.codeforcompassion.animalwelfare.util.HtmlTextUtil;
 import org.codeforcompassion.animalwelfare.util.SourceExtractorUtil;
+import org.codeforcompassion.animalwelfare.util.StaxRssParser;
 import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.net.URL;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class RssFeedService {
 
     @Autowired
     private CachedAiInsightRepository cachedAiInsightRepository;
 
+    @Autowired
+    private FeedStateRepository feedStateRepository;
+
+    @Autowired
+    private HttpClient feedHttpClient;
+
+    @Autowired
+    private FeedFetchConfig fetchConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /*public List<ArticleDTO> fetchArticles(String feedUrl) throws Exception {
         URL url = new URL(feedUrl);
         SyndFeedInput input = new SyndFeedInput();
@@ -41,49 +81,223 @@ public class RssFeedService {
         return articles;
     }*/
 
+    /**
+     * Entries read by one poll. For incremental polls {@code state} holds the feed state updated
+     * with this response's validators, GUIDs and high-water date, not yet saved; see
+     * {@link #commitPoll(FeedState, Collection)}.
+     */
+    public record FeedPoll(List<ArticleDTO> articles, FeedState state) {
+    }
+
     public List<ArticleDTO> fetchArticles(String feedUrl) throws Exception {
-        URL url = new URL(feedUrl);
-        SyndFeedInput input = new SyndFeedInput();
-        SyndFeed feed = input.build(new XmlReader(url));
-        List<ArticleDTO> articles = new ArrayList<>();
+        return fetchArticles(feedUrl, false, null);
+    }
 
-        LocalDate threeYearsAgo = LocalDate.now().minusYears(3);
+    public List<ArticleDTO> fetchArticles(String feedUrl, boolean incremental, LocalDate fromDate) throws Exception {
+        FeedPoll poll = poll(feedUrl, incremental, fromDate);
+        if (poll.state() != null) {
+            commitPoll(poll.state(), List.of());
+        }
+        return poll.articles();
+    }
 
-        for (SyndEntry entry : feed.getEntries()) {
-            if (entry.getPublishedDate() == null) continue;
+    /**
+     * Fetches a feed's entries published on or after {@code fromDate} (and within the last three
+     * years). In incremental mode the request carries the stored ETag / Last-Modified validators,
+     * so an unchanged feed costs a 304 and yields nothing, and entries seen on an earlier poll
+     * (or older than the feed's high-water date) are skipped.
+     * Google News orders search feeds by relevance, not date, so known entries are skipped
+     * individually rather than ending the scan.
+     * <p>
+     * Nothing is saved here: the caller commits the returned state once it knows which entries
+     * it finished, so a run that dies halfway leaves the feed state as it was.
+     */
+    public FeedPoll poll(String feedUrl, boolean incremental, LocalDate fromDate) throws Exception {
+        FeedState state = incremental && fetchConfig.isIncremental()
+                ? feedStateRepository.findById(feedUrl).orElseGet(() -> FeedState.builder().feedUrl(feedUrl).build())
+                : null;
+
+        // Meters are not tagged per feed (unbounded cardinality); per-feed yields are in the run report
+        HttpResponse<byte[]> response;
+        Timer.Sample fetchSample = Timer.start(meterRegistry);
+        try {
+            response = download(feedUrl, state);
+        } catch (Exception e) {
+            fetchSample.stop(meterRegistry.timer("feed.fetch", "status", "error"));
+            throw e;
+        }
+        fetchSample.stop(meterRegistry.timer("feed.fetch", "status", String.valueOf(response.statusCode())));
+        if (response.statusCode() == 304 && state != null) {
+            log.info("Feed unchanged since last poll: {}", feedUrl);
+            state.setLastPolledAt(LocalDateTime.now());
+            return new FeedPoll(List.of(), state);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Feed " + feedUrl + " returned HTTP " + response.statusCode());
+        }
+
+        LocalDate notBefore = LocalDate.now().minusYears(3);
+        if (fromDate != null && fromDate.isAfter(notBefore)) {
+            notBefore = fromDate;
+        }
+        FeedEntryFilter filter = new FeedEntryFilter(notBefore,
+                state != null ? new HashSet<>(state.getSeenGuids()) : Set.of(),
+                state != null && state.getHighWaterDate() != null
+                        ? state.getHighWaterDate().minusDays(fetchConfig.getHighWaterGraceDays())
+                        : null);
+
+        Timer.Sample parseSample = Timer.start(meterRegistry);
+        List<ArticleDTO> articles = parse(fetchConfig.getParser(), response.body(),
+                response.headers().firstValue("Content-Type").orElse(null), feedUrl, filter);
+        parseSample.stop(meterRegistry.timer("feed.parse", "parser", fetchConfig.getParser().name().toLowerCase()));
+        meterRegistry.counter("feed.entries.accepted").increment(articles.size());
+
+        if (state != null) {
+            rememberPoll(state, response, filter.getResponseGuids(), filter.getNewestDate());
+        }
+        return new FeedPoll(articles, state);
+    }
+
+    HttpResponse<byte[]> download(String feedUrl, FeedState state) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(feedUrl))
+                .timeout(Duration.ofSeconds(fetchConfig.getRequestTimeoutSeconds()))
+                .GET();
+        if (state != null && state.getEtag() != null) {
+            request.header("If-None-Match", state.getEtag());
+        }
+        if (state != null && state.getLastModified() != null) {
+            request.header("If-Modified-Since", state.getLastModified());
+        }
+        return feedHttpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Parses a downloaded feed with the given parser. The StAX parser only handles RSS; anything
+     * else (e.g. Atom) falls back to Rome.
+     */
+    List<ArticleDTO> parse(FeedFetchConfig.Parser parser, byte[] body, String contentType,
+                           String feedUrl, FeedEntryFilter filter) throws Exception {
+        if (parser == FeedFetchConfig.Parser.STAX) {
+            List<ArticleDTO> articles = new ArrayList<>();
+            boolean rss = StaxRssParser.parse(new ByteArrayInputStream(body), item -> {
+                if (filter.accept(item.guid(), item.publishedDate())) {
+                    HtmlTextUtil.Summary summary = HtmlTextUtil.extract(item.description());
+                    articles.add(toArticle(feedUrl, item.title(), item.link(), item.guid(),
+                            item.publishedDate(), summary.text(), summary.fontText()));
+                }
+            });
+            if (rss) {
+                return articles;
+            }
+        }
+        return parseWithRome(body, contentType, feedUrl, filter);
+    }
 
-            LocalDate publishedDate = entry.getPublishedDate()
+    private List<ArticleDTO> parseWithRome(byte[] body, String contentType, String feedUrl, FeedEntryFilter filter) throws Exception {
+        InputStream in = new ByteArrayInputStream(body);
+        SyndFeed feed = new SyndFeedInput().build(contentType != null ? new XmlReader(in, contentType) : new XmlReader(in));
+        List<ArticleDTO> articles = new ArrayList<>();
+
+        for (SyndEntry entry : feed.getEntries()) {
+            String guid = entry.getUri() != null ? entry.getUri() : entry.getLink();
+            LocalDate publishedDate = entry.getPublishedDate() == null ? null : entry.getPublishedDate()
                     .toInstant()
                     .atZone(ZoneId.systemDefault())
                     .toLocalDate();
 
-            // 🔥 Filter old articles
-            if (publishedDate.isBefore(threeYearsAgo)) {
+            // 🔥 Filter old and already-seen articles
+            if (!filter.accept(guid, publishedDate)) {
                 continue;
             }
 
-            ArticleDTO article = new ArticleDTO();
-            article.setTitle(entry.getTitle());
-            article.setUrl(entry.getLink());
             String summary = entry.getDescription() != null ? entry.getDescription().getValue() : "";
-            String cleanSummary = Jsoup.parse(summary).text();
-            article.setSummary(cleanSummary);
-            article.setPublishedDate(publishedDate);
-            String source = SourceExtractorUtil.extractSource(feedUrl, summary, entry.getLink());
-            article.setSource(source);
-            articles.add(article);
+            Document summaryDoc = Jsoup.parse(summary);
+            articles.add(toArticle(feedUrl, entry.getTitle(), entry.getLink(), guid, publishedDate,
+                    summaryDoc.text(), summaryDoc.select("font").text()));
         }
         return articles;
     }
 
+    private static ArticleDTO toArticle(String feedUrl, String title, String link, String guid, LocalDate publishedDate,
+                                        String cleanSummary, String fontText) {
+        ArticleDTO article = new ArticleDTO();
+        article.setTitle(title);
+        article.setUrl(link);
+        article.setGuid(guid);
+        article.setSummary(cleanSummary);
+        article.setPublishedDate(publishedDate);
+        article.setSource(SourceExtractorUtil.extractSourceFromFontText(feedUrl, fontText, link));
+        return article;
+    }
+
+    private void rememberPoll(FeedState state, HttpResponse<?> response, List<String> responseGuids, LocalDate newestDate) {
+        state.setEtag(response.headers().firstValue("ETag").orElse(null));
+        state.setLastModified(response.headers().firstValue("Last-Modified").orElse(null));
+
+        // Newest poll first, so trimming drops GUIDs that have long left the feed
+        Set<String> guids = new LinkedHashSet<>(responseGuids);
+        guids.addAll(state.getSeenGuids());
+        state.setSeenGuids(guids.stream().limit(fetchConfig.getMaxSeenGuids()).collect(Collectors.toCollection(ArrayList::new)));
+
+        if (newestDate != null && (state.getHighWaterDate() == null || newestDate.isAfter(state.getHighWaterDate()))) {
+            state.setHighWaterDate(newestDate);
+        }
+        state.setLastPolledAt(LocalDateTime.now());
+    }
+
+    /**
+     * Saves a polled feed's state. Entries the run fetched but did not finish stay eligible for
+     * the next poll: their GUIDs are forgotten, the validators cleared so the feed is
+     * re-downloaded, and the high-water date wound back to the oldest of them.
+     */
+    public void commitPoll(FeedState state, Collection<ArticleDTO> unfinished) {
+        if (!unfinished.isEmpty()) {
+            Set<String> guids = unfinished.stream().map(ArticleDTO::getGuid).filter(Objects::nonNull).collect(Collectors.toSet());
+            state.getSeenGuids().removeIf(guids::contains);
+            state.setEtag(null);
+            state.setLastModified(null);
+            unfinished.stream()
+                    .map(ArticleDTO::getPublishedDate)
+                    .filter(Objects::nonNull)
+                    .min(Comparator.naturalOrder())
+                    .filter(oldest -> state.getHighWaterDate() != null && oldest.isBefore(state.getHighWaterDate()))
+                    .ifPresent(state::setHighWaterDate);
+        }
+        feedStateRepository.save(state);
+    }
+
     public boolean articleExistsInMongo(String url) {
         return cachedAiInsightRepository.existsById(url);
     }
 
 
-    public boolean articleExistsInMongoWithUrlOrTitle(String normalizedUrl, ArticleDTO article) {
-        return  cachedAiInsightRepository.findById(normalizedUrl).isPresent()
-                || cachedAiInsightRepository.findByTitleAndPublishedDate(article.getTitle(), article.getPublishedDate()).isPresent();
+    /**
+     * Resolves a whole feed's worth of articles against Mongo in one query, matching either the
+     * (already normalized) URL or the title + published date pair.
+     *
+     * @return the articles that already have a cached insight
+     */
+    public Set<ArticleDTO> findArticlesInMongo(List<ArticleDTO> articles) {
+        if (articles.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> urls = articles.stream().map(ArticleDTO::getUrl).collect(Collectors.toSet());
+        Set<String> titles = articles.stream().map(ArticleDTO::getTitle).filter(Objects::nonNull).collect(Collectors.toSet());
 
+        Set<String> existingUrls = new HashSet<>();
+        Set<String> existingTitleDates = new HashSet<>();
+        for (CachedAiInsight existing : cachedAiInsightRepository.findDedupKeys(urls, titles)) {
+            existingUrls.add(existing.getUrl());
+            existingTitleDates.add(existing.getTitle() + "|" + existing.getPublishedDate());
+        }
+
+        Set<ArticleDTO> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ArticleDTO article : articles) {
+            if (existingUrls.contains(article.getUrl())
+                    || existingTitleDates.contains(article.getTitle() + "|" + article.getPublishedDate())) {
+                found.add(article);
+            }
+        }
+        return found;
     }
 }
@@ -0,0 +1,130 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.codeforcompassion.animalwelfare.config.SheetsOutboxConfig;
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+import org.codeforcompassion.animalwelfare.model.SheetOutboxEntry;
+import org.codeforcompassion.animalwelfare.model.SheetOutboxEntry.Status;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code sheet_outbox} collection: articles whose insights are in Mongo but which still have
+ * to reach the Google Sheet. Entries are keyed by URL, so enqueueing an article twice leaves a
+ * single pending entry.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SheetOutboxService {
+
+    private final MongoTemplate mongoTemplate;
+    private final SheetsOutboxConfig config;
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Queues an article for the sheet, resetting attempts if it was already queued or dead.
+     */
+    public void enqueue(ArticleDTO article) {
+        LocalDateTime now = LocalDateTime.now();
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(article.getUrl())),
+                new Update()
+                        .set("article", article)
+                        .set("status", Status.PENDING)
+                        .set("attempts", 0)
+                        .set("nextAttemptAt", now)
+                        .unset("lastError")
+                        .unset("publishedAt")
+                        .setOnInsert("createdAt", now),
+                SheetOutboxEntry.class);
+    }
+
+    /**
+     * Oldest pending entries whose backoff has elapsed.
+     */
+    public List<SheetOutboxEntry> nextBatch() {
+        Query query = Query.query(Criteria.where("status").is(Status.PENDING).and("nextAttemptAt").lte(LocalDateTime.now()))
+                .with(Sort.by("nextAttemptAt"))
+                .limit(config.getBatchSize());
+        return mongoTemplate.find(query, SheetOutboxEntry.class);
+    }
+
+    public void markPublished(List<SheetOutboxEntry> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        for (SheetOutboxEntry entry : entries) {
+            mongoTemplate.updateFirst(
+                    unchangedSinceRead(entry),
+                    new Update().set("status", Status.PUBLISHED).set("publishedAt", now).unset("lastError"),
+                    SheetOutboxEntry.class);
+        }
+    }
+
+    /**
+     * Backs off each entry exponentially; entries out of attempts are parked as DEAD.
+     */
+    public void markFailed(List<SheetOutboxEntry> entries, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        for (SheetOutboxEntry entry : entries) {
+            int attempts = entry.getAttempts() + 1;
+            long backoff = Math.min(config.getMaxBackoffSeconds(),
+                    config.getBaseBackoffSeconds() << Math.min(attempts - 1, 20));
+            Update update = new Update()
+                    .set("attempts", attempts)
+                    .set("lastError", error)
+                    .set("nextAttemptAt", now.plusSeconds(backoff));
+            if (attempts >= config.getMaxAttempts()) {
+                update.set("status", Status.DEAD);
+                log.error("Giving up on publishing {} to Google Sheets after {} attempts: {}", entry.getUrl(), attempts, error);
+            }
+            mongoTemplate.updateFirst(
+                    unchangedSinceRead(entry),
+                    update, SheetOutboxEntry.class);
+        }
+    }
+
+    // Skips entries re-enqueued (new payload, reset attempts and due time) while their batch was in flight
+    private static Query unchangedSinceRead(SheetOutboxEntry entry) {
+        return Query.query(Criteria.where("_id").is(entry.getUrl())
+                .and("status").is(Status.PENDING)
+                .and("attempts").is(entry.getAttempts())
+                .and("nextAttemptAt").is(entry.getNextAttemptAt()));
+    }
+
+    public int requeueDead() {
+        return (int) mongoTemplate.updateMulti(Query.query(Criteria.where("status").is(Status.DEAD)),
+                new Update().set("status", Status.PENDING).set("attempts", 0).set("nextAttemptAt", LocalDateTime.now()),
+                SheetOutboxEntry.class).getModifiedCount();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isEnabled());
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Status status : Status.values()) {
+            counts.put(status.name(), 0);
+        }
+        mongoTemplate.aggregate(Aggregation.newAggregation(Aggregation.group("status").count().as("count")),
+                        SheetOutboxEntry.class, Document.class)
+                .forEach(row -> counts.put(String.valueOf(row.get("_id")), ((Number) row.get("count")).intValue()));
+        stats.put("counts", counts);
+        SheetOutboxEntry oldest = mongoTemplate.findOne(Query.query(Criteria.where("status").is(Status.PENDING))
+                .with(Sort.by("createdAt")), SheetOutboxEntry.class);
+        stats.put("oldestPendingAt", oldest != null ? oldest.getCreatedAt() : null);
+        return stats;
+    }
+}
@@ -0,0 +1,100 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import com.google.api.services.sheets.v4.model.ValueRange;
+import org.codeforcompassion.animalwelfare.util.UrlUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warm, per-tab index of the normalized URLs already written to the Google Sheet.
+ * Each tab remembers how many URL rows it has seen, so a refresh only downloads the
+ * rows appended since then and duplicate checks are local hash lookups.
+ */
+class SheetUrlIndex {
+
+    private static final int FIRST_DATA_ROW = 2; // row 1 is the header
+
+    private final Map<String, TabIndex> tabs = new ConcurrentHashMap<>();
+    private final AtomicInteger duplicateCount = new AtomicInteger();
+
+    private static final class TabIndex {
+        private final Set<String> urls = ConcurrentHashMap.newKeySet();
+        private volatile int rowCount;
+    }
+
+    /**
+     * @return the URL-column range holding rows not yet indexed for {@code tab}, e.g. {@code Articles_2025-07!C42:C}
+     */
+    String pendingRange(String tab) {
+        return tab + "!C" + (tab(tab).rowCount + FIRST_DATA_ROW) + ":C";
+    }
+
+    /**
+     * Folds rows returned for {@link #pendingRange(String)} into the index.
+     */
+    void refresh(String tab, ValueRange pendingRows) {
+        TabIndex index = tab(tab);
+        List<List<Object>> values = pendingRows.getValues();
+        if (values == null) {
+            return;
+        }
+        for (List<Object> row : values) {
+            if (!row.isEmpty()) {
+                index.urls.add(key(row.get(0).toString()));
+            }
+        }
+        index.rowCount += values.size();
+    }
+
+    /**
+     * Atomically claims {@code url} for {@code tab}; returns {@code false} and counts a duplicate
+     * when it is already present.
+     */
+    boolean claim(String tab, String url) {
+        if (tab(tab).urls.add(key(url))) {
+            return true;
+        }
+        duplicateCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Releases URLs claimed for rows that were never written.
+     */
+    void unclaim(String tab, Collection<String> urls) {
+        TabIndex index = tab(tab);
+        urls.forEach(url -> index.urls.remove(key(url)));
+    }
+
+    /**
+     * @return the first sheet row not yet folded into the index
+     */
+    int nextRow(String tab) {
+        return tab(tab).rowCount + FIRST_DATA_ROW;
+    }
+
+    void recordAppended(String tab, int rows) {
+        tab(tab).rowCount += rows;
+    }
+
+    void reset(String tab) {
+        tabs.remove(tab);
+    }
+
+    int getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    private TabIndex tab(String tab) {
+        return tabs.computeIfAbsent(tab, k -> new TabIndex());
+    }
+
+    private static String key(String url) {
+        return UrlUtils.normalize(url.trim()).toLowerCase();
+    }
+}
@@ -0,0 +1,69 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.codeforcompassion.animalwelfare.model.ArticleDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Per-run write buffer for the Google Sheet. Articles are collected as they are published
+ * and written through {@link GoogleSheetService#appendArticles(List)} once the buffer
+ * reaches its threshold or the run ends, instead of one round of API calls per article.
+ */
+@Slf4j
+public class SheetWriteBuffer {
+
+    private final GoogleSheetService googleSheetService;
+    private final int flushThreshold;
+    private final List<ArticleDTO> pending = new ArrayList<>();
+    private Consumer<List<ArticleDTO>> onWritten = batch -> { };
+
+    SheetWriteBuffer(GoogleSheetService googleSheetService, int flushThreshold) {
+        this.googleSheetService = googleSheetService;
+        this.flushThreshold = Math.max(1, flushThreshold);
+    }
+
+    // Called with each batch once it has been appended to the sheet
+    public SheetWriteBuffer onWritten(Consumer<List<ArticleDTO>> listener) {
+        this.onWritten = listener;
+        return this;
+    }
+
+    public void add(ArticleDTO article) throws Exception {
+        List<ArticleDTO> batch = null;
+        synchronized (pending) {
+            pending.add(article);
+            if (pending.size() >= flushThreshold) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            write(batch);
+        }
+    }
+
+    public void flush() throws Exception {
+        List<ArticleDTO> batch;
+        synchronized (pending) {
+            batch = drain();
+        }
+        write(batch);
+    }
+
+    private List<ArticleDTO> drain() {
+        List<ArticleDTO> batch = new ArrayList<>(pending);
+        pending.clear();
+        return batch;
+    }
+
+    private void write(List<ArticleDTO> batch) throws Exception {
+        if (batch.isEmpty()) {
+            return;
+        }
+        log.info("Flushing {} buffered articles to Google Sheets", batch.size());
+        googleSheetService.appendArticles(batch);
+        onWritten.accept(batch);
+    }
+}
@@ -0,0 +1,118 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.auth.http.HttpCredentialsAdapter;
+import com.google.auth.oauth2.GoogleCredentials;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns the single {@link Sheets} client used by the application. Credentials are decoded
+ * from {@code GOOGLE_CREDS_BASE64} in memory once, the HTTP transport (and with it the
+ * JDK keep-alive connection pool) is shared across calls, and access tokens are refreshed
+ * by the auth library's {@link HttpCredentialsAdapter} as they expire.
+ */
+@Slf4j
+@Component
+public class SheetsClient {
+
+    private static final String APPLICATION_NAME = "Animal Welfare Tracker";
+
+    @Value("${google.sheet.id}")
+    private String spreadsheetId;
+
+    private volatile Sheets sheets;
+
+    private volatile Map<String, Object> health = Map.of("status", "UNKNOWN");
+
+    public Sheets get() throws IOException, GeneralSecurityException {
+        Sheets current = sheets;
+        if (current == null) {
+            synchronized (this) {
+                current = sheets;
+                if (current == null) {
+                    current = build();
+                    sheets = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Sheets build() throws IOException, GeneralSecurityException {
+        String base64Creds = System.getenv("GOOGLE_CREDS_BASE64");
+
+        if (base64Creds == null || base64Creds.isBlank()) {
+            throw new IllegalStateException("GOOGLE_CREDS_BASE64 environment variable not set");
+        }
+
+        byte[] decodedBytes = Base64.getDecoder().decode(base64Creds);
+        GoogleCredentials credentials = GoogleCredentials.fromStream(new ByteArrayInputStream(decodedBytes))
+                .createScoped(Collections.singletonList("https://www.googleapis.com/auth/spreadsheets"));
+
+        NetHttpTransport transport = GoogleNetHttpTransport.newTrustedTransport();
+        log.info("Initialized shared Google Sheets client");
+
+        return new Sheets.Builder(
+                transport,
+                JacksonFactory.getDefaultInstance(),
+                new HttpCredentialsAdapter(credentials))
+                .setApplicationName(APPLICATION_NAME)
+                .build();
+    }
+
+    /**
+     * Verifies credentials and spreadsheet access once the application is up, so a broken
+     * configuration shows in the logs at startup instead of on the first scheduled run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkOnStartup() {
+        Map<String, Object> result = checkHealth();
+        if ("UP".equals(result.get("status"))) {
+            log.info("Google Sheets health check passed: {}", result.get("spreadsheet"));
+        } else {
+            log.warn("Google Sheets health check failed: {}", result.get("error"));
+        }
+    }
+
+    public Map<String, Object> checkHealth() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
+        try {
+            String title = get().spreadsheets()
+                    .get(spreadsheetId)
+                    .setFields("properties.title")
+                    .execute()
+                    .getProperties()
+                    .getTitle();
+            result.put("status", "UP");
+            result.put("spreadsheet", title);
+        } catch (Exception e) {
+            result.put("status", "DOWN");
+            result.put("error", e.getMessage());
+        }
+        result.put("latencyMs", System.currentTimeMillis() - start);
+        result.put("checkedAt", LocalDateTime.now().toString());
+        health = result;
+        return result;
+    }
+
+    public Map<String, Object> getLastHealth() {
+        return health;
+    }
+}
@@ -0,0 +1,44 @@
+package org.codeforcompassion.animalwelfare.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Reports Google Sheets reachability under {@code /actuator/health}. Reuses the last check made
+ * by {@link SheetsClient} while it is fresh, so frequent probes do not spend Sheets API quota.
+ */
+@Component("sheets")
+@RequiredArgsConstructor
+public class SheetsHealthIndicator implements HealthIndicator {
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    private final SheetsClient sheetsClient;
+
+    @Override
+    public Health health() {
+        Map<String, Object> result = sheetsClient.getLastHealth();
+        if (isStale(result)) {
+            result = sheetsClient.checkHealth();
+        }
+        Health.Builder builder = "UP".equals(result.get("status")) ? Health.up() : Health.down();
+        result.forEach((key, value) -> {
+            if (!"status".equals(key) && value != null) {
+                builder.withDetail(key, value);
+            }
+        });
+        return builder.build();
+    }
+
+    private static boolean isStale(Map<String, Object> result) {
+        Object checkedAt = result.get("checkedAt");
+        return checkedAt == null
+                || LocalDateTime.parse(checkedAt.toString()).isBefore(LocalDateTime.now().minus(MAX_AGE));
+    }
+}
@@ -0,0 +1,64 @@
+package org.codeforcompassion.animalwelfare.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * Minimal thread-safe Bloom filter over strings. {@link #mightContain(String)} never returns
+ * {@code false} for an added key; it returns {@code true} for absent keys with roughly the
+ * configured false-positive probability.
+ */
+public class BloomFilter {
+
+    private final BitSet bits;
+    private final int size;
+    private final int hashFunctions;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        int n = Math.max(1, expectedInsertions);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveProbability));
+        this.size = (int) Math.max(64, Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2))));
+        this.hashFunctions = (int) Math.max(1, Math.round((double) size / n * Math.log(2)));
+        this.bits = new BitSet(size);
+    }
+
+    public synchronized void add(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            bits.set(index(h1 + i * h2));
+        }
+    }
+
+    public synchronized boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (!bits.get(index(h1 + i * h2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % size;
+    }
+
+    // FNV-1a 64-bit over the UTF-8 bytes, then a murmur3 finalizer for better bit mixing
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
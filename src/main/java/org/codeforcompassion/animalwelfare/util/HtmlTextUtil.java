@@ -0,0 +1,125 @@
+package org.codeforcompassion.animalwelfare.util;
+
+import java.util.Set;
+
+/**
+ * Single-pass tag stripper for the small HTML fragments in feed descriptions. Produces the
+ * whitespace-normalized text (as Jsoup's {@code text()} would) and the text inside
+ * {@code <font>} tags, which Google News uses for the publisher name.
+ */
+public final class HtmlTextUtil {
+
+    public record Summary(String text, String fontText) {
+    }
+
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "br", "p", "div", "li", "ul", "ol", "tr", "td", "th", "h1", "h2", "h3", "h4", "h5", "h6");
+
+    private HtmlTextUtil() {
+    }
+
+    public static Summary extract(String html) {
+        if (html == null || html.isEmpty()) {
+            return new Summary("", "");
+        }
+        StringBuilder text = new StringBuilder(html.length());
+        StringBuilder font = new StringBuilder();
+        int fontDepth = 0;
+        int i = 0;
+        int length = html.length();
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                int end = html.indexOf('>', i);
+                if (end < 0) {
+                    break;
+                }
+                String tag = tagName(html, i + 1, end);
+                if ("font".equals(tag)) {
+                    fontDepth++;
+                } else if ("/font".equals(tag)) {
+                    fontDepth = Math.max(0, fontDepth - 1);
+                } else if (BLOCK_TAGS.contains(tag.startsWith("/") ? tag.substring(1) : tag)) {
+                    appendSpace(text);
+                    if (fontDepth > 0) {
+                        appendSpace(font);
+                    }
+                }
+                i = end + 1;
+                continue;
+            }
+            if (c == '&') {
+                int semicolon = html.indexOf(';', i);
+                if (semicolon > i && semicolon - i <= 10) {
+                    String decoded = decodeEntity(html.substring(i + 1, semicolon));
+                    if (decoded != null) {
+                        append(text, decoded);
+                        if (fontDepth > 0) {
+                            append(font, decoded);
+                        }
+                        i = semicolon + 1;
+                        continue;
+                    }
+                }
+            }
+            append(text, String.valueOf(c));
+            if (fontDepth > 0) {
+                append(font, String.valueOf(c));
+            }
+            i++;
+        }
+        return new Summary(text.toString().trim(), font.toString().trim());
+    }
+
+    private static String tagName(String html, int start, int end) {
+        int i = start;
+        if (i < end && html.charAt(i) == '/') {
+            i++;
+        }
+        while (i < end && Character.isLetterOrDigit(html.charAt(i))) {
+            i++;
+        }
+        return html.substring(start, i).toLowerCase();
+    }
+
+    private static String decodeEntity(String entity) {
+        switch (entity) {
+            case "amp": return "&";
+            case "lt": return "<";
+            case "gt": return ">";
+            case "quot": return "\"";
+            case "apos": return "'";
+            case "nbsp": return " ";
+            default:
+                if (entity.startsWith("#")) {
+                    try {
+                        int codePoint = entity.startsWith("#x") || entity.startsWith("#X")
+                                ? Integer.parseInt(entity.substring(2), 16)
+                                : Integer.parseInt(entity.substring(1));
+                        return new String(Character.toChars(codePoint));
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+                }
+                return null;
+        }
+    }
+
+    // Collapses runs of whitespace (including non-breaking spaces) into one space
+    private static void append(StringBuilder out, String chunk) {
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00a0') {
+                appendSpace(out);
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    private static void appendSpace(StringBuilder out) {
+        if (!out.isEmpty() && out.charAt(out.length() - 1) != ' ') {
+            out.append(' ');
+        }
+    }
+}
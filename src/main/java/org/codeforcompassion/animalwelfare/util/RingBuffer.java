@@ -0,0 +1,66 @@
+package org.codeforcompassion.animalwelfare.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free ring buffer that keeps the most recent {@code capacity} items.
+ * Every appended item gets a sequence number, which doubles as the paging cursor: a page
+ * starting at a cursor that has already been overwritten resumes at the oldest retained item.
+ */
+public class RingBuffer<T> {
+
+    public record Page<T>(List<T> items, long nextCursor) {
+    }
+
+    private record Slot<T>(long sequence, T value) {
+    }
+
+    private final int capacity;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicReferenceArray<Slot<T>> slots;
+
+    public RingBuffer(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    public void add(T value) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set((int) (sequence % capacity), new Slot<>(sequence, value));
+    }
+
+    /**
+     * Up to {@code limit} items from {@code cursor} onwards, oldest first. Stops early at a slot a
+     * concurrent writer has claimed but not yet filled; the returned cursor picks up from there.
+     */
+    public Page<T> page(long cursor, int limit) {
+        long end = nextSequence.get();
+        long sequence = Math.max(cursor, Math.max(0, end - capacity));
+        List<T> items = new ArrayList<>(Math.max(0, (int) Math.min(limit, end - sequence)));
+        while (sequence < end && items.size() < limit) {
+            Slot<T> slot = slots.get((int) (sequence % capacity));
+            if (slot == null || slot.sequence() < sequence) {
+                break;
+            }
+            if (slot.sequence() > sequence) {
+                // Overwritten while paging; continue at the oldest item still retained
+                sequence = Math.max(sequence + 1, nextSequence.get() - capacity);
+                continue;
+            }
+            items.add(slot.value());
+            sequence++;
+        }
+        return new Page<>(items, sequence);
+    }
+
+    public List<T> snapshot() {
+        return page(0, capacity).items();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
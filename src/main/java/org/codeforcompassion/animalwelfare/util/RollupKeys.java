@@ -0,0 +1,19 @@
+package org.codeforcompassion.animalwelfare.util;
+
+/**
+ * Escapes free-text values (themes, locations, festival names) for use as Mongo field names,
+ * which may not contain '.' or '$'. Both are swapped for their full-width look-alikes.
+ */
+public class RollupKeys {
+
+    private static final String DOT = "．";
+    private static final String DOLLAR = "＄";
+
+    public static String encode(String key) {
+        return key.replace(".", DOT).replace("$", DOLLAR);
+    }
+
+    public static String decode(String key) {
+        return key.replace(DOT, ".").replace(DOLLAR, "$");
+    }
+}
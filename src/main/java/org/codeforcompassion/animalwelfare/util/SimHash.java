@@ -0,0 +1,64 @@
+package org.codeforcompassion.animalwelfare.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 64-bit SimHash over word shingles. Texts that share most of their shingles end up with
+ * fingerprints only a few bits apart, so near-identical stories can be matched by Hamming distance.
+ */
+public final class SimHash {
+
+    private static final int SHINGLE_SIZE = 3;
+
+    private SimHash() {
+    }
+
+    public static long of(String text) {
+        String[] words = tokenize(text);
+        int[] weights = new int[64];
+        int shingles = Math.max(1, words.length - SHINGLE_SIZE + 1);
+        for (int i = 0; i < shingles; i++) {
+            String shingle = String.join(" ", Arrays.copyOfRange(words, i, Math.min(words.length, i + SHINGLE_SIZE)));
+            long hash = hash64(shingle);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    public static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // FNV-1a followed by the murmur3 finalizer, so every input bit affects every output bit
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,67 @@
+package org.codeforcompassion.animalwelfare.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LSH index over SimHash fingerprints. The 64 bits are split into {@code maxDistance + 1} bands;
+ * two fingerprints within {@code maxDistance} bits of each other must agree on at least one
+ * whole band, so only entries sharing a band bucket need a distance check.
+ */
+public class SimHashIndex {
+
+    private record Entry(long fingerprint, String id) {
+    }
+
+    private final int maxDistance;
+    private final int bandBits;
+    private final List<Map<Long, List<Entry>>> bands = new ArrayList<>();
+
+    public SimHashIndex(int maxDistance) {
+        this.maxDistance = maxDistance;
+        int bandCount = maxDistance + 1;
+        this.bandBits = 64 / bandCount;
+        for (int i = 0; i < bandCount; i++) {
+            bands.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * @return the id of an indexed near-duplicate, or null after adding this fingerprint
+     */
+    public synchronized String findOrAdd(long fingerprint, String id) {
+        String match = find(fingerprint);
+        if (match != null) {
+            return match;
+        }
+        add(fingerprint, id);
+        return null;
+    }
+
+    public synchronized void add(long fingerprint, String id) {
+        Entry entry = new Entry(fingerprint, id);
+        for (int band = 0; band < bands.size(); band++) {
+            bands.get(band).computeIfAbsent(bandValue(fingerprint, band), k -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private String find(long fingerprint) {
+        for (int band = 0; band < bands.size(); band++) {
+            for (Entry candidate : bands.get(band).getOrDefault(bandValue(fingerprint, band), List.of())) {
+                if (SimHash.distance(candidate.fingerprint(), fingerprint) <= maxDistance) {
+                    return candidate.id();
+                }
+            }
+        }
+        return null;
+    }
+
+    // The last band also takes the leftover bits when 64 does not divide evenly
+    private long bandValue(long fingerprint, int band) {
+        int shift = band * bandBits;
+        int bits = band == bands.size() - 1 ? 64 - shift : bandBits;
+        return bits == 64 ? fingerprint : (fingerprint >>> shift) & ((1L << bits) - 1);
+    }
+}
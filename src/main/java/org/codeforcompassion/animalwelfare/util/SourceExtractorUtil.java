@@ -4,16 +4,31 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
 import java.net.URL;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class SourceExtractorUtil {
 
+    private static final Pattern SITE_FILTER = Pattern.compile("site:([\\w.-]+)");
+
     public static String extractSource(String feedUrl, String summaryHtml, String articleUrl) {
+        return resolveSource(feedUrl, () -> {
+            Document doc = Jsoup.parse(summaryHtml);
+            return doc.select("font").text();
+        }, articleUrl);
+    }
+
+    // For callers that already pulled the <font> text out of the summary while parsing it
+    public static String extractSourceFromFontText(String feedUrl, String fontText, String articleUrl) {
+        return resolveSource(feedUrl, () -> fontText, articleUrl);
+    }
+
+    private static String resolveSource(String feedUrl, Supplier<String> fontText, String articleUrl) {
         String source = null;
 
         // 1. Try extracting from feed URL (site:domain.com)
-        Matcher matcher = Pattern.compile("site:([\\w.-]+)").matcher(feedUrl);
+        Matcher matcher = SITE_FILTER.matcher(feedUrl);
         if (matcher.find()) {
             source = matcher.group(1).replace("www.", "");
         }
@@ -21,8 +36,7 @@ public class SourceExtractorUtil {
         // 2. Try from <font> tag in summary HTML
         if (isEmpty(source)) {
             try {
-                Document doc = Jsoup.parse(summaryHtml);
-                source = doc.select("font").text();
+                source = fontText.get();
             } catch (Exception ignored) {}
         }
 
@@ -0,0 +1,112 @@
+package org.codeforcompassion.animalwelfare.util;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+/**
+ * Pull parser for RSS 2.0 feeds. Hands each {@code <item>} to the consumer as soon as its end tag
+ * is read, without building a document tree, and keeps only the handful of child elements the
+ * ingestion needs.
+ */
+public final class StaxRssParser {
+
+    public record Item(String title, String link, String guid, LocalDate publishedDate, String description) {
+    }
+
+    private static final String RSS_1_NAMESPACE = "http://purl.org/rss/1.0/";
+    private static final String DUBLIN_CORE_NAMESPACE = "http://purl.org/dc/elements/1.1/";
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    private StaxRssParser() {
+    }
+
+    /**
+     * @return false if the document is not RSS (e.g. Atom), in which case nothing was consumed
+     */
+    public static boolean parse(InputStream in, Consumer<Item> consumer) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        try {
+            reader.nextTag();
+            String root = reader.getLocalName();
+            if (!"rss".equals(root) && !"RDF".equals(root)) {
+                return false;
+            }
+            // RSS 2.0 elements have no namespace, RSS 1.0 ones live in the RSS 1.0 namespace
+            String itemNamespace = "RDF".equals(root) ? RSS_1_NAMESPACE : "";
+
+            String title = null, link = null, guid = null, pubDate = null, description = null;
+            boolean inItem = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    String namespace = namespaceOf(reader);
+                    if ("item".equals(name) && itemNamespace.equals(namespace)) {
+                        inItem = true;
+                        title = link = guid = pubDate = description = null;
+                    } else if (inItem && itemNamespace.equals(namespace)) {
+                        // Namespaced lookalikes (atom:link, media:title, ...) must not overwrite the RSS values
+                        switch (name) {
+                            case "title" -> title = reader.getElementText();
+                            case "link" -> link = reader.getElementText();
+                            case "guid" -> guid = reader.getElementText();
+                            case "pubDate" -> pubDate = reader.getElementText();
+                            case "description" -> description = reader.getElementText();
+                            default -> { }
+                        }
+                    } else if (inItem && "date".equals(name) && DUBLIN_CORE_NAMESPACE.equals(namespace)) {
+                        pubDate = reader.getElementText();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && inItem && "item".equals(reader.getLocalName())
+                        && itemNamespace.equals(namespaceOf(reader))) {
+                    inItem = false;
+                    String trimmedLink = link != null ? link.trim() : null;
+                    String id = guid != null && !guid.isBlank() ? guid.trim() : trimmedLink;
+                    consumer.accept(new Item(title, trimmedLink, id, parseDate(pubDate), description));
+                }
+            }
+            return true;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String namespaceOf(XMLStreamReader reader) {
+        String namespace = reader.getNamespaceURI();
+        return namespace != null ? namespace : "";
+    }
+
+    // RFC 822 for RSS 2.0, ISO-8601 for RSS 1.0 dc:date; same local date Rome would produce
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.trim();
+        try {
+            return ZonedDateTime.parse(text, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .withZoneSameInstant(ZoneId.systemDefault()).toLocalDate();
+        } catch (DateTimeParseException e) {
+            try {
+                return ZonedDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+                        .withZoneSameInstant(ZoneId.systemDefault()).toLocalDate();
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
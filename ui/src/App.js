@@ -50,7 +50,15 @@ const App = () => {
   const triggerFetch = async () => {
     setFetching(true);
     try {
-      await axios.post('/api/articles/process');
+      const { data: job } = await axios.post('/api/articles/process');
+      let status = job.status;
+      while (status === 'QUEUED' || status === 'RUNNING') {
+        await new Promise((resolve) => setTimeout(resolve, 3000));
+        status = (await axios.get(`/api/articles/jobs/${job.id}`)).data.status;
+      }
+      if (status !== 'SUCCEEDED') {
+        setError(`Processing ${status.toLowerCase()}`);
+      }
       await loadArticles();
     } catch (err) {
       console.error(err);